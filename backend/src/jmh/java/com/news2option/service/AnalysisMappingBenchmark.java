@@ -0,0 +1,37 @@
+package com.news2option.service;
+
+import com.news2option.model.News;
+import com.news2option.model.NewsAnalysis;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a recorded Gemini analysis response onto the NewsAnalysis /
+ * IndustryImpact / CompanyImpact graph, without persisting it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalysisMappingBenchmark {
+
+    private NewsAnalysisService analysisService;
+    private News news;
+    private String response;
+
+    @Setup
+    public void setup() {
+        analysisService = new NewsAnalysisService(null, null, null, null);
+        news = News.builder().id(1L).title("Benchmark article").publishedAt(LocalDateTime.now()).build();
+        response = BenchmarkFixtures.read("analysis-response.json");
+    }
+
+    @Benchmark
+    public NewsAnalysis mapAnalysisResponse() throws Exception {
+        return analysisService.mapAnalysisResponse(news, response);
+    }
+}
@@ -0,0 +1,88 @@
+package com.news2option.service;
+
+import com.news2option.model.News;
+import com.news2option.model.NewsAnalysis;
+import com.news2option.repository.NewsAnalysisRepository;
+import com.news2option.repository.NewsRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end persistence of one article and its analysis graph into an in-memory
+ * H2 database, using the application's JPA and batching settings. Only the JPA
+ * layer is started; no scheduled jobs or outbound calls run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalysisPersistenceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private NewsRepository newsRepository;
+    private NewsAnalysisRepository newsAnalysisRepository;
+    private TransactionTemplate transactionTemplate;
+    private NewsAnalysisService analysisService;
+    private String response;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Passed as arguments so they override application.properties; the schema comes from the Flyway migrations
+        context = new SpringApplicationBuilder(PersistenceConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off");
+        newsRepository = context.getBean(NewsRepository.class);
+        newsAnalysisRepository = context.getBean(NewsAnalysisRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        analysisService = new NewsAnalysisService(null, null, null, null);
+        response = BenchmarkFixtures.read("analysis-response.json");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public NewsAnalysis persistAnalysisGraph() {
+        long id = ++sequence;
+        return transactionTemplate.execute(status -> {
+            News news = newsRepository.save(News.builder()
+                    .title("Benchmark article " + id)
+                    .content("Benchmark content")
+                    .source("benchmark")
+                    .url("https://benchmark.example/" + id)
+                    .urlHash(Long.toHexString(id))
+                    .publishedAt(LocalDateTime.now())
+                    .collectedAt(LocalDateTime.now())
+                    .build());
+            try {
+                return newsAnalysisRepository.save(analysisService.mapAnalysisResponse(news, response));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = News.class)
+    @EnableJpaRepositories(basePackageClasses = NewsRepository.class)
+    public static class PersistenceConfig {
+    }
+}
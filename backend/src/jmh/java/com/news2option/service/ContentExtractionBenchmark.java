@@ -0,0 +1,46 @@
+package com.news2option.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Article body extraction over recorded pages, with and without the Jsoup parse
+ * that precedes it on every fetched article
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentExtractionBenchmark {
+
+    @Param({"yahoo", "cnbc", "reuters"})
+    public String source;
+
+    private NewsCollectorService collector;
+    private String html;
+    private String sourceUrl;
+    private Document document;
+
+    @Setup
+    public void setup() {
+        collector = new NewsCollectorService(null, null, null, null, null, null, null);
+        html = BenchmarkFixtures.read(source + "-article.html");
+        sourceUrl = "https://www." + source + ".com/";
+        document = Jsoup.parse(html, sourceUrl);
+    }
+
+    @Benchmark
+    public String extractContent() {
+        return collector.extractContent(document, sourceUrl);
+    }
+
+    @Benchmark
+    public String parseAndExtractContent() {
+        return collector.extractContent(Jsoup.parse(html, sourceUrl), sourceUrl);
+    }
+}
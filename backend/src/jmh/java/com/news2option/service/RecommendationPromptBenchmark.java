@@ -0,0 +1,89 @@
+package com.news2option.service;
+
+import com.news2option.dto.AnalysisImpactRow;
+import com.news2option.model.IndustryImpact;
+import com.news2option.repository.NewsAnalysisRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recommendation prompt assembly over a day of analyses. The repository is an
+ * in-memory stand-in streaming pre-built rows, so only grouping, ranking and
+ * rendering are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecommendationPromptBenchmark {
+
+    private static final String[] INDUSTRIES = {"Technology", "Energy", "Financials", "Healthcare", "Industrials", "Utilities", "Materials", "Real Estate"};
+    private static final IndustryImpact.ImpactType[] IMPACT_TYPES = IndustryImpact.ImpactType.values();
+
+    @Param({"10", "100", "1000"})
+    public int analyses;
+
+    private RecommendationPromptBuilder promptBuilder;
+    private LocalDateTime since;
+    private LocalDateTime until;
+
+    @Setup
+    public void setup() {
+        until = LocalDateTime.now();
+        since = until.minusDays(1);
+        List<AnalysisImpactRow> rows = buildRows(analyses, until);
+        
+        NewsAnalysisRepository repository = (NewsAnalysisRepository) Proxy.newProxyInstance(
+                NewsAnalysisRepository.class.getClassLoader(),
+                new Class<?>[]{NewsAnalysisRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("streamImpactRowsAnalyzedBetween")) {
+                        return rows.stream();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        promptBuilder = new RecommendationPromptBuilder(repository, null, 8000, 600, 12, 0.25);
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return promptBuilder.buildPrompt(since, until);
+    }
+
+    /**
+     * Three industries with two companies each per analysis, spread over the day,
+     * from a fixed seed so every run sees the same data
+     */
+    private static List<AnalysisImpactRow> buildRows(int analyses, LocalDateTime until) {
+        Random random = new Random(42);
+        List<AnalysisImpactRow> rows = new ArrayList<>();
+        long industryId = 0;
+        for (long analysisId = 1; analysisId <= analyses; analysisId++) {
+            String title = "Benchmark headline " + analysisId;
+            String content = "Analysis of benchmark article " + analysisId + ". " + "Markets reacted to the news with mixed signals across sectors. ".repeat(12);
+            LocalDateTime analyzedAt = until.minusMinutes(random.nextInt(24 * 60));
+            for (int i = 0; i < 3; i++) {
+                industryId++;
+                String industry = INDUSTRIES[random.nextInt(INDUSTRIES.length)];
+                IndustryImpact.ImpactType industryType = IMPACT_TYPES[random.nextInt(IMPACT_TYPES.length)];
+                int industryScore = 1 + random.nextInt(10);
+                for (int c = 0; c < 2; c++) {
+                    int company = random.nextInt(200);
+                    rows.add(new AnalysisImpactRow(analysisId, title, content, analyzedAt,
+                            industryId, industry, industryType, industryScore,
+                            "Company " + company, "C" + company,
+                            IMPACT_TYPES[random.nextInt(IMPACT_TYPES.length)], 1 + random.nextInt(10)));
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,112 @@
+package com.news2option.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Shared outbound HTTP layer. All Gemini calls and page fetches go through one
+ * pooled, keep-alive Apache HttpClient with common timeouts and transparent
+ * gzip/deflate decoding.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager httpConnectionManager(
+            @Value("${http.client.max-connections:64}") int maxConnections,
+            @Value("${http.client.max-connections-per-host:8}") int maxConnectionsPerHost,
+            @Value("${http.client.connect-timeout-ms:5000}") long connectTimeoutMillis,
+            @Value("${http.client.socket-timeout-ms:60000}") long socketTimeoutMillis,
+            @Value("${http.client.connection-ttl-ms:300000}") long connectionTtlMillis) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                        .setSocketTimeout(Timeout.ofMilliseconds(socketTimeoutMillis))
+                        .setTimeToLive(TimeValue.ofMilliseconds(connectionTtlMillis))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager httpConnectionManager,
+            @Value("${http.client.pool-timeout-ms:10000}") long poolTimeoutMillis,
+            @Value("${http.client.response-timeout-ms:60000}") long responseTimeoutMillis,
+            @Value("${http.client.idle-eviction-ms:30000}") long idleEvictionMillis) {
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMillis))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMillis))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMillis))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient httpClient,
+                                     @Value("${http.client.max-response-bytes:10485760}") long maxResponseBytes) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        restTemplate.getInterceptors().add(responseSizeLimit(maxResponseBytes));
+        return restTemplate;
+    }
+
+    private static ClientHttpRequestInterceptor responseSizeLimit(long maxResponseBytes) {
+        return (request, body, execution) -> {
+            ClientHttpResponse response = execution.execute(request, body);
+            return new ClientHttpResponse() {
+                @Override
+                public HttpStatusCode getStatusCode() throws IOException {
+                    return response.getStatusCode();
+                }
+                
+                @Override
+                @Deprecated
+                public int getRawStatusCode() throws IOException {
+                    return response.getStatusCode().value();
+                }
+
+                @Override
+                public String getStatusText() throws IOException {
+                    return response.getStatusText();
+                }
+                
+                @Override
+                public HttpHeaders getHeaders() {
+                    return response.getHeaders();
+                }
+                
+                @Override
+                public InputStream getBody() throws IOException {
+                    return new BoundedInputStream(response.getBody(), maxResponseBytes);
+                }
+                
+                @Override
+                public void close() {
+                    response.close();
+                }
+            };
+        };
+    }
+}
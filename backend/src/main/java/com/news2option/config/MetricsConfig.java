@@ -0,0 +1,93 @@
+package com.news2option.config;
+
+import com.news2option.model.AnalysisTask;
+import com.news2option.repository.AnalysisTaskRepository;
+import com.news2option.service.GeminiResponseCache;
+import com.news2option.service.LiveEventFeed;
+import com.news2option.service.ResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges over the caches, pools and queues whose counters are kept by the
+ * components themselves, so they are exported alongside the pipeline stage metrics.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder geminiCacheMetrics(GeminiResponseCache cache) {
+        return registry -> {
+            FunctionCounter.builder("gemini.cache.hits", cache, c -> c.getStats().memoryHits())
+                    .tag("tier", "memory")
+                    .register(registry);
+            FunctionCounter.builder("gemini.cache.hits", cache, c -> c.getStats().diskHits())
+                    .tag("tier", "disk")
+                    .register(registry);
+            FunctionCounter.builder("gemini.cache.misses", cache, c -> c.getStats().misses())
+                    .register(registry);
+            Gauge.builder("gemini.cache.size", cache, c -> c.getStats().memoryBytes())
+                    .tag("tier", "memory")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("gemini.cache.size", cache, c -> c.getStats().diskBytes())
+                    .tag("tier", "disk")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder responseCacheMetrics(ResponseCache cache) {
+        return registry -> {
+            FunctionCounter.builder("response.cache.hits", cache, c -> c.getStats().hits())
+                    .register(registry);
+            FunctionCounter.builder("response.cache.misses", cache, c -> c.getStats().misses())
+                    .register(registry);
+            FunctionCounter.builder("response.cache.not.modified", cache, c -> c.getStats().notModified())
+                    .register(registry);
+            Gauge.builder("response.cache.entries", cache, c -> c.getStats().entries())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder httpPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return registry -> {
+            Gauge.builder("http.client.pool.leased", connectionManager, m -> m.getTotalStats().getLeased())
+                    .register(registry);
+            Gauge.builder("http.client.pool.available", connectionManager, m -> m.getTotalStats().getAvailable())
+                    .register(registry);
+            Gauge.builder("http.client.pool.pending", connectionManager, m -> m.getTotalStats().getPending())
+                    .register(registry);
+            Gauge.builder("http.client.pool.max", connectionManager, m -> m.getTotalStats().getMax())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder eventFeedMetrics(LiveEventFeed feed) {
+        return registry -> {
+            Gauge.builder("feed.subscribers", feed, f -> f.getStats().subscribers())
+                    .register(registry);
+            Gauge.builder("feed.buffered.events", feed, f -> f.getStats().bufferedEvents())
+                    .register(registry);
+            FunctionCounter.builder("feed.published.events", feed, f -> f.getStats().publishedEvents())
+                    .register(registry);
+            FunctionCounter.builder("feed.overflowed.clients", feed, f -> f.getStats().overflowedClients())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder analysisQueueMetrics(AnalysisTaskRepository taskRepository) {
+        return registry -> Gauge.builder("analysis.queue.pending", taskRepository,
+                        repository -> repository.countByStatus(AnalysisTask.TaskStatus.PENDING))
+                .description("Analysis tasks waiting for a worker")
+                .register(registry);
+    }
+}
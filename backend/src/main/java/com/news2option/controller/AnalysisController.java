@@ -1,10 +1,16 @@
 package com.news2option.controller;
 
+import com.news2option.dto.AnalysisSummary;
+import com.news2option.dto.Cursor;
+import com.news2option.dto.CursorPage;
 import com.news2option.model.NewsAnalysis;
 import com.news2option.repository.NewsAnalysisRepository;
+import com.news2option.service.ResponseCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,21 +21,36 @@ import java.util.List;
 public class AnalysisController {
 
     private final NewsAnalysisRepository newsAnalysisRepository;
+    private final ResponseCache responseCache;
 
     /**
-     * Get all news analyses
+     * Get news analyses, newest first, one keyset page at a time
      */
     @GetMapping
-    public ResponseEntity<List<NewsAnalysis>> getAllAnalyses() {
-        return ResponseEntity.ok(newsAnalysisRepository.findAll());
+    public ResponseEntity<CursorPage<AnalysisSummary>> getAllAnalyses(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        try {
+            List<AnalysisSummary> rows;
+            if (cursor == null) {
+                rows = newsAnalysisRepository.findSummaries(pageRequest);
+            } else {
+                Cursor position = Cursor.decode(cursor);
+                rows = newsAnalysisRepository.findSummariesBefore(position.timestamp(), position.id(), pageRequest);
+            }
+            return ResponseEntity.ok(CursorPage.of(rows, pageSize, analysis -> new Cursor(analysis.analyzedAt(), analysis.id())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
-     * Get recent news analyses
+     * Get recent news analyses, served from the response cache
      */
     @GetMapping("/recent")
-    public ResponseEntity<List<NewsAnalysis>> getRecentAnalyses() {
-        return ResponseEntity.ok(newsAnalysisRepository.findTop20ByOrderByAnalyzedAtDesc());
+    public ResponseEntity<byte[]> getRecentAnalyses(WebRequest request) {
+        return responseCache.serve(ResponseCache.RECENT_ANALYSES, request, newsAnalysisRepository::findTop20ByOrderByAnalyzedAtDesc);
     }
 
     /**
@@ -0,0 +1,61 @@
+package com.news2option.controller;
+
+import com.news2option.dto.ArchivePartition;
+import com.news2option.dto.ArchivedNews;
+import com.news2option.dto.CursorPage;
+import com.news2option.service.NewsArchive;
+import com.news2option.service.RetentionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/archive")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ArchiveController {
+
+    private final NewsArchive newsArchive;
+    private final RetentionService retentionService;
+
+    /**
+     * List the archive segments with their date ranges, article counts and sizes
+     */
+    @GetMapping("/partitions")
+    public ResponseEntity<List<ArchivePartition>> getPartitions() throws IOException {
+        return ResponseEntity.ok(newsArchive.listPartitions());
+    }
+
+    /**
+     * Get archived articles with their analyses, newest first. Both dates are
+     * inclusive and optional; only the segments overlapping the range are read.
+     */
+    @GetMapping("/news")
+    public ResponseEntity<List<ArchivedNews>> getArchivedNews(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(value = "ticker", required = false) String ticker,
+                                                              @RequestParam(value = "source", required = false) String source,
+                                                              @RequestParam(value = "limit", defaultValue = "20") int limit) throws IOException {
+        LocalDate end = to == null ? LocalDate.now().plusDays(1) : to.plusDays(1);
+        LocalDate start = from == null ? LocalDate.EPOCH : from;
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(newsArchive.find(start, end, ticker, source, CursorPage.clampLimit(limit)));
+    }
+
+    /**
+     * Manually move articles older than the hot window to the archive
+     */
+    @PostMapping("/run")
+    public ResponseEntity<RetentionService.RetentionReport> runRetention() {
+        RetentionService.RetentionReport report = retentionService.archiveExpired();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
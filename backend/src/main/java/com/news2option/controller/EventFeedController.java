@@ -0,0 +1,27 @@
+package com.news2option.controller;
+
+import com.news2option.service.LiveEventFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class EventFeedController {
+
+    private final LiveEventFeed liveEventFeed;
+
+    /**
+     * Stream new news, analyses and recommendations as server-sent events. Browsers
+     * send Last-Event-ID on reconnect; the lastEventId parameter serves clients that
+     * cannot set headers.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                @RequestParam(value = "lastEventId", required = false) String lastEventId) {
+        return liveEventFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
@@ -0,0 +1,182 @@
+package com.news2option.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the Gemini generateContent and streamGenerateContent
+ * endpoints, active in the replay profile. It recognises the analysis, batch
+ * analysis and recommendation prompts and answers each with well-formed JSON
+ * derived from the prompt, after an injected latency. A configurable share of
+ * calls fails with 503 or 429, or returns unparseable text.
+ */
+@RestController
+@RequestMapping("/replay/gemini")
+@Profile("replay")
+@Slf4j
+public class GeminiStubController {
+
+    private static final Pattern ARTICLE_ID = Pattern.compile("Article ID: (\\d+)");
+    private static final String[] IMPACT_TYPES = {"POSITIVE", "NEGATIVE", "NEUTRAL"};
+    private static final String[] INDUSTRIES = {"Technology", "Energy", "Financials", "Healthcare", "Consumer Staples", "Industrials"};
+    private static final String[][] COMPANIES = {
+            {"Apple", "AAPL"}, {"Microsoft", "MSFT"}, {"Alphabet", "GOOGL"}, {"Amazon", "AMZN"}, {"Nvidia", "NVDA"},
+            {"Tesla", "TSLA"}, {"JPMorgan", "JPM"}, {"Visa", "V"}, {"Exxon Mobil", "XOM"}, {"Chevron", "CVX"},
+            {"Eli Lilly", "LLY"}, {"Pfizer", "PFE"}, {"Costco", "COST"}, {"Walmart", "WMT"}, {"Goldman Sachs", "GS"}
+    };
+    private static final int STREAM_CHUNK_CHARS = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${replay.gemini.latency-ms:800}")
+    private long latencyMillis;
+
+    @Value("${replay.gemini.latency-jitter-ms:400}")
+    private long latencyJitterMillis;
+
+    @Value("${replay.gemini.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${replay.gemini.rate-limit-rate:0.0}")
+    private double rateLimitRate;
+
+    @Value("${replay.gemini.malformed-rate:0.0}")
+    private double malformedRate;
+
+    /**
+     * Answer a generateContent or streamGenerateContent call; the model name and
+     * method arrive as one path segment, e.g. "stub:generateContent"
+     */
+    @PostMapping("/models/{method}")
+    public ResponseEntity<String> generate(@PathVariable("method") String method, @RequestBody JsonNode request) throws Exception {
+        sleep(latencyMillis + (latencyJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMillis) : 0));
+        
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < errorRate) {
+            return ResponseEntity.status(503).body("{\"error\":{\"code\":503,\"message\":\"Injected failure\"}}");
+        }
+        if (roll < errorRate + rateLimitRate) {
+            return ResponseEntity.status(429).body("{\"error\":{\"code\":429,\"message\":\"Injected rate limit\"}}");
+        }
+        
+        String prompt = request.path("contents").path(0).path("parts").path(0).path("text").asText();
+        String text = roll < errorRate + rateLimitRate + malformedRate
+                ? "I'm sorry, I cannot answer that in JSON."
+                : respondTo(prompt);
+        
+        if (method.endsWith(":streamGenerateContent")) {
+            StringBuilder events = new StringBuilder();
+            for (int start = 0; start < text.length(); start += STREAM_CHUNK_CHARS) {
+                int end = Math.min(text.length(), start + STREAM_CHUNK_CHARS);
+                ObjectNode event = candidate(text.substring(start, end));
+                if (end == text.length()) {
+                    addUsage(event, prompt, text);
+                }
+                events.append("data: ").append(objectMapper.writeValueAsString(event)).append("\n\n");
+            }
+            return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(events.toString());
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(objectMapper.writeValueAsString(addUsage(candidate(text), prompt, text)));
+    }
+
+    private String respondTo(String prompt) throws Exception {
+        // Seed from the prompt so a replayed prompt always gets the same answer
+        Random random = new Random(prompt.hashCode());
+        
+        if (prompt.contains("investment recommendation")) {
+            return objectMapper.writeValueAsString(recommendation(random));
+        }
+        Matcher articleIds = ARTICLE_ID.matcher(prompt);
+        if (articleIds.find()) {
+            ArrayNode articles = objectMapper.createArrayNode();
+            do {
+                ObjectNode article = analysis(random);
+                article.put("newsId", Long.parseLong(articleIds.group(1)));
+                articles.add(article);
+            } while (articleIds.find());
+            return objectMapper.writeValueAsString(articles);
+        }
+        return objectMapper.writeValueAsString(analysis(random));
+    }
+
+    private ObjectNode analysis(Random random) {
+        ObjectNode analysis = objectMapper.createObjectNode();
+        analysis.put("analysis", "Synthetic analysis: the article points to shifting expectations for earnings and demand.");
+        ArrayNode industries = analysis.putArray("industries");
+        int industryCount = 1 + random.nextInt(3);
+        for (int i = 0; i < industryCount; i++) {
+            ObjectNode industry = industries.addObject();
+            industry.put("name", INDUSTRIES[random.nextInt(INDUSTRIES.length)]);
+            industry.put("impactType", IMPACT_TYPES[random.nextInt(IMPACT_TYPES.length)]);
+            industry.put("impactScore", 1 + random.nextInt(10));
+            ArrayNode companies = industry.putArray("companies");
+            int companyCount = 1 + random.nextInt(3);
+            for (int c = 0; c < companyCount; c++) {
+                String[] company = COMPANIES[random.nextInt(COMPANIES.length)];
+                ObjectNode node = companies.addObject();
+                node.put("name", company[0]);
+                node.put("stockSymbol", company[1]);
+                node.put("impactType", IMPACT_TYPES[random.nextInt(IMPACT_TYPES.length)]);
+                node.put("impactScore", 1 + random.nextInt(10));
+            }
+        }
+        return analysis;
+    }
+
+    private ObjectNode recommendation(Random random) {
+        ObjectNode recommendation = objectMapper.createObjectNode();
+        recommendation.put("summary", "Synthetic recommendation based on the replayed analyses.");
+        recommendation.put("overallSentiment", new String[]{"BULLISH", "BEARISH", "NEUTRAL"}[random.nextInt(3)]);
+        ArrayNode investments = recommendation.putArray("recommendedInvestments");
+        for (int i = 0; i < 3; i++) {
+            String[] company = COMPANIES[random.nextInt(COMPANIES.length)];
+            ObjectNode investment = investments.addObject();
+            investment.put("industryName", INDUSTRIES[random.nextInt(INDUSTRIES.length)]);
+            investment.put("companyName", company[0]);
+            investment.put("stockSymbol", company[1]);
+            investment.put("recommendationType", new String[]{"BUY", "SELL", "HOLD"}[random.nextInt(3)]);
+            investment.put("confidenceScore", 1 + random.nextInt(10));
+            investment.put("rationale", "Synthetic rationale.");
+        }
+        return recommendation;
+    }
+
+    private ObjectNode candidate(String text) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putArray("candidates").addObject()
+                .putObject("content")
+                .putArray("parts").addObject()
+                .put("text", text);
+        return response;
+    }
+
+    /**
+     * Report token usage the way the API does, estimated at four characters a token
+     */
+    private static ObjectNode addUsage(ObjectNode response, String prompt, String text) {
+        ObjectNode usage = response.putObject("usageMetadata");
+        usage.put("promptTokenCount", prompt.length() / 4);
+        usage.put("candidatesTokenCount", text.length() / 4);
+        usage.put("totalTokenCount", (prompt.length() + text.length()) / 4);
+        return response;
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.news2option.controller;
+
+import com.news2option.dto.CursorPage;
+import com.news2option.dto.ImpactTotals;
+import com.news2option.model.ImpactRollup;
+import com.news2option.service.ImpactRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/impacts")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ImpactController {
+
+    private final ImpactRollupService impactRollupService;
+
+    /**
+     * Get the industries with the most impacts in a time range
+     */
+    @GetMapping("/industries")
+    public ResponseEntity<List<ImpactTotals>> getTopIndustries(@RequestParam(value = "grain", defaultValue = "DAILY") ImpactRollup.Grain grain,
+                                                               @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                               @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return getTopKeys(ImpactRollup.Dimension.INDUSTRY, grain, from, to, limit);
+    }
+
+    /**
+     * Get the tickers with the most impacts in a time range
+     */
+    @GetMapping("/tickers")
+    public ResponseEntity<List<ImpactTotals>> getTopTickers(@RequestParam(value = "grain", defaultValue = "DAILY") ImpactRollup.Grain grain,
+                                                            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return getTopKeys(ImpactRollup.Dimension.TICKER, grain, from, to, limit);
+    }
+
+    /**
+     * Get impact buckets for one industry
+     */
+    @GetMapping("/industries/{name}")
+    public ResponseEntity<List<ImpactTotals>> getIndustryBuckets(@PathVariable("name") String name,
+                                                                 @RequestParam(value = "grain", defaultValue = "DAILY") ImpactRollup.Grain grain,
+                                                                 @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                 @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return getBuckets(ImpactRollup.Dimension.INDUSTRY, name, grain, from, to);
+    }
+
+    /**
+     * Get impact buckets for one ticker
+     */
+    @GetMapping("/tickers/{symbol}")
+    public ResponseEntity<List<ImpactTotals>> getTickerBuckets(@PathVariable("symbol") String symbol,
+                                                               @RequestParam(value = "grain", defaultValue = "DAILY") ImpactRollup.Grain grain,
+                                                               @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return getBuckets(ImpactRollup.Dimension.TICKER, symbol, grain, from, to);
+    }
+
+    private ResponseEntity<List<ImpactTotals>> getTopKeys(ImpactRollup.Dimension dimension, ImpactRollup.Grain grain,
+                                                          LocalDateTime from, LocalDateTime to, int limit) {
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? defaultStart(grain, end) : from;
+        return ResponseEntity.ok(impactRollupService.getTopKeys(dimension, grain, start, end, CursorPage.clampLimit(limit)));
+    }
+
+    private ResponseEntity<List<ImpactTotals>> getBuckets(ImpactRollup.Dimension dimension, String key, ImpactRollup.Grain grain,
+                                                          LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? defaultStart(grain, end) : from;
+        return ResponseEntity.ok(impactRollupService.getBuckets(dimension, key, grain, start, end));
+    }
+
+    /**
+     * Two days of hourly buckets or thirty days of daily buckets
+     */
+    private static LocalDateTime defaultStart(ImpactRollup.Grain grain, LocalDateTime end) {
+        return grain == ImpactRollup.Grain.HOURLY ? end.minusHours(48) : end.minusDays(30);
+    }
+}
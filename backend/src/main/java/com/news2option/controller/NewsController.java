@@ -1,12 +1,21 @@
 package com.news2option.controller;
 
+import com.news2option.dto.Cursor;
+import com.news2option.dto.CursorPage;
+import com.news2option.dto.NewsSummary;
+import com.news2option.dto.SearchPage;
 import com.news2option.model.News;
 import com.news2option.repository.NewsRepository;
 import com.news2option.service.NewsCollectorService;
+import com.news2option.service.NewsSearchIndex;
+import com.news2option.service.ResponseCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,21 +26,37 @@ public class NewsController {
 
     private final NewsRepository newsRepository;
     private final NewsCollectorService newsCollectorService;
+    private final NewsSearchIndex newsSearchIndex;
+    private final ResponseCache responseCache;
 
     /**
-     * Get all news articles
+     * Get news articles, newest first, one keyset page at a time
      */
     @GetMapping
-    public ResponseEntity<List<News>> getAllNews() {
-        return ResponseEntity.ok(newsRepository.findAll());
+    public ResponseEntity<CursorPage<NewsSummary>> getAllNews(@RequestParam(value = "cursor", required = false) String cursor,
+                                                              @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        try {
+            List<NewsSummary> rows;
+            if (cursor == null) {
+                rows = newsRepository.findSummaries(pageRequest);
+            } else {
+                Cursor position = Cursor.decode(cursor);
+                rows = newsRepository.findSummariesBefore(position.timestamp(), position.id(), pageRequest);
+            }
+            return ResponseEntity.ok(CursorPage.of(rows, pageSize, news -> new Cursor(news.publishedAt(), news.id())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
-     * Get recent news articles
+     * Get recent news articles, served from the response cache
      */
     @GetMapping("/recent")
-    public ResponseEntity<List<News>> getRecentNews() {
-        return ResponseEntity.ok(newsRepository.findTop20ByOrderByPublishedAtDesc());
+    public ResponseEntity<byte[]> getRecentNews(WebRequest request) {
+        return responseCache.serve(ResponseCache.RECENT_NEWS, request, newsRepository::findTop20ByOrderByPublishedAtDesc);
     }
 
     /**
@@ -45,11 +70,17 @@ public class NewsController {
     }
 
     /**
-     * Search news by title
+     * Full-text search over titles, content and analyses, ranked by relevance
      */
     @GetMapping("/search")
-    public ResponseEntity<List<News>> searchNews(@RequestParam String query) {
-        return ResponseEntity.ok(newsRepository.findByTitleContainingIgnoreCase(query));
+    public ResponseEntity<SearchPage> searchNews(@RequestParam("query") String query,
+                                                 @RequestParam(value = "page", defaultValue = "0") int page,
+                                                 @RequestParam(value = "size", defaultValue = "20") int size) throws IOException {
+        try {
+            return ResponseEntity.ok(newsSearchIndex.search(query, page, CursorPage.clampLimit(size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -1,11 +1,16 @@
 package com.news2option.controller;
 
-import com.news2option.model.DailyInvestmentRecommendation;
+import com.news2option.dto.Cursor;
+import com.news2option.dto.CursorPage;
+import com.news2option.dto.RecommendationSummary;
 import com.news2option.repository.DailyInvestmentRecommendationRepository;
 import com.news2option.service.InvestmentRecommendationService;
+import com.news2option.service.ResponseCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,36 +23,56 @@ public class RecommendationController {
 
     private final DailyInvestmentRecommendationRepository recommendationRepository;
     private final InvestmentRecommendationService recommendationService;
+    private final ResponseCache responseCache;
 
     /**
-     * Get all investment recommendations
+     * Get investment recommendations, newest first, one keyset page at a time
      */
     @GetMapping
-    public ResponseEntity<List<DailyInvestmentRecommendation>> getAllRecommendations() {
-        return ResponseEntity.ok(recommendationRepository.findAll());
+    public ResponseEntity<CursorPage<RecommendationSummary>> getAllRecommendations(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                                   @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        try {
+            List<RecommendationSummary> rows;
+            if (cursor == null) {
+                rows = recommendationRepository.findSummaries(pageRequest);
+            } else {
+                Cursor position = Cursor.decode(cursor);
+                rows = recommendationRepository.findSummariesBefore(position.timestamp().toLocalDate(), position.id(), pageRequest);
+            }
+            return ResponseEntity.ok(CursorPage.of(rows, pageSize, recommendation -> new Cursor(recommendation.date().atStartOfDay(), recommendation.id())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
-     * Get latest investment recommendation
+     * Get latest investment recommendation, served from the response cache
      */
     @GetMapping("/latest")
-    public ResponseEntity<DailyInvestmentRecommendation> getLatestRecommendation() {
-        try {
-            return ResponseEntity.ok(recommendationService.getLatestRecommendations());
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<byte[]> getLatestRecommendation(WebRequest request) {
+        return responseCache.serve(ResponseCache.RECOMMENDATIONS + "latest", request,
+                () -> recommendationRepository.findTopByOrderByDateDescVersionDesc().orElse(null));
     }
 
     /**
-     * Get recommendation by date
+     * Get the latest recommendation version for a date, served from the response cache
      */
     @GetMapping("/date/{date}")
-    public ResponseEntity<DailyInvestmentRecommendation> getRecommendationByDate(@PathVariable String date) {
+    public ResponseEntity<byte[]> getRecommendationByDate(@PathVariable("date") String date, WebRequest request) {
+        LocalDate localDate = LocalDate.parse(date);
+        return responseCache.serve(ResponseCache.RECOMMENDATIONS + "date:" + localDate, request,
+                () -> recommendationRepository.findTopByDateOrderByVersionDesc(localDate).orElse(null));
+    }
+
+    /**
+     * Get every intraday version stored for a date, oldest first
+     */
+    @GetMapping("/date/{date}/versions")
+    public ResponseEntity<List<RecommendationSummary>> getRecommendationVersions(@PathVariable("date") String date) {
         LocalDate localDate = LocalDate.parse(date);
-        return recommendationRepository.findByDate(localDate)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return ResponseEntity.ok(recommendationRepository.findVersions(localDate));
     }
 
     /**
@@ -0,0 +1,41 @@
+package com.news2option.controller;
+
+import com.news2option.service.ReplayLoadDriver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/replay/load")
+@Profile("replay")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReplayController {
+
+    private final ReplayLoadDriver replayLoadDriver;
+
+    /**
+     * Start a load run; optionally generate a recommendation every N collector runs
+     */
+    @PostMapping
+    public ResponseEntity<ReplayLoadDriver.LoadReport> startLoad(
+            @RequestParam(value = "articles", defaultValue = "1000") int articles,
+            @RequestParam(value = "ratePerMinute", defaultValue = "1000") int ratePerMinute,
+            @RequestParam(value = "recommendEvery", defaultValue = "0") int recommendEvery) {
+        if (!replayLoadDriver.start(articles, ratePerMinute, recommendEvery)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(replayLoadDriver.getReport());
+        }
+        return ResponseEntity.accepted().body(replayLoadDriver.getReport());
+    }
+
+    /**
+     * Get throughput and per-stage latency for the current or last load run
+     */
+    @GetMapping
+    public ResponseEntity<ReplayLoadDriver.LoadReport> getLoadReport() {
+        ReplayLoadDriver.LoadReport report = replayLoadDriver.getReport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.notFound().build();
+    }
+}
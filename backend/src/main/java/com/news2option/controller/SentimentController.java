@@ -0,0 +1,50 @@
+package com.news2option.controller;
+
+import com.news2option.service.SentimentSeriesStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/sentiment")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SentimentController {
+
+    private final SentimentSeriesStore sentimentSeriesStore;
+
+    /**
+     * Get the impact history of a ticker, thirty days by default
+     */
+    @GetMapping("/{symbol}")
+    public ResponseEntity<SentimentSeriesStore.SentimentRange> getSentiment(@PathVariable("symbol") String symbol,
+                                                                            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? end.minusDays(30) : from;
+        return ResponseEntity.ok(sentimentSeriesStore.range(symbol, start, end));
+    }
+
+    /**
+     * Get a trailing moving average of a ticker's signed impact scores
+     */
+    @GetMapping("/{symbol}/moving-average")
+    public ResponseEntity<SentimentSeriesStore.MovingAverage> getMovingAverage(@PathVariable("symbol") String symbol,
+                                                                               @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                               @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                               @RequestParam(value = "stepMinutes", defaultValue = "60") long stepMinutes,
+                                                                               @RequestParam(value = "windowMinutes", defaultValue = "1440") long windowMinutes) {
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? end.minusDays(30) : from;
+        try {
+            return ResponseEntity.ok(sentimentSeriesStore.movingAverage(symbol, start, end,
+                    Duration.ofMinutes(stepMinutes), Duration.ofMinutes(windowMinutes)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
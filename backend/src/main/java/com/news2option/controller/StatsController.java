@@ -0,0 +1,58 @@
+package com.news2option.controller;
+
+import com.news2option.service.GeminiResponseCache;
+import com.news2option.service.LiveEventFeed;
+import com.news2option.service.ResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StatsController {
+
+    private final GeminiResponseCache geminiResponseCache;
+    private final PoolingHttpClientConnectionManager httpConnectionManager;
+    private final LiveEventFeed liveEventFeed;
+    private final ResponseCache responseCache;
+
+    /**
+     * Get Gemini response cache hit/miss counters
+     */
+    @GetMapping("/gemini-cache")
+    public ResponseEntity<GeminiResponseCache.CacheStats> getGeminiCacheStats() {
+        return ResponseEntity.ok(geminiResponseCache.getStats());
+    }
+
+    /**
+     * Get outbound HTTP connection pool utilisation
+     */
+    @GetMapping("/http-pool")
+    public ResponseEntity<HttpPoolStats> getHttpPoolStats() {
+        PoolStats stats = httpConnectionManager.getTotalStats();
+        return ResponseEntity.ok(new HttpPoolStats(stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax()));
+    }
+
+    /**
+     * Get live event feed subscribers and buffer usage
+     */
+    @GetMapping("/event-feed")
+    public ResponseEntity<LiveEventFeed.FeedStats> getEventFeedStats() {
+        return ResponseEntity.ok(liveEventFeed.getStats());
+    }
+
+    /**
+     * Get read-side response cache hit/miss and 304 counters
+     */
+    @GetMapping("/response-cache")
+    public ResponseEntity<ResponseCache.ResponseCacheStats> getResponseCacheStats() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
+
+    public record HttpPoolStats(int leased, int available, int pending, int max) {
+    }
+}
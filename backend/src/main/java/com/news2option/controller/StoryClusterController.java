@@ -0,0 +1,56 @@
+package com.news2option.controller;
+
+import com.news2option.dto.Cursor;
+import com.news2option.dto.CursorPage;
+import com.news2option.dto.NewsSummary;
+import com.news2option.dto.StoryClusterSummary;
+import com.news2option.repository.NewsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/clusters")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StoryClusterController {
+
+    private final NewsRepository newsRepository;
+
+    /**
+     * Get story clusters, newest first, one keyset page at a time
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<StoryClusterSummary>> getClusters(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                       @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        try {
+            List<StoryClusterSummary> rows;
+            if (cursor == null) {
+                rows = newsRepository.findClusterSummaries(pageRequest);
+            } else {
+                Cursor position = Cursor.decode(cursor);
+                rows = newsRepository.findClusterSummariesBefore(position.timestamp(), position.id(), pageRequest);
+            }
+            return ResponseEntity.ok(CursorPage.of(rows, pageSize, cluster -> new Cursor(cluster.publishedAt(), cluster.id())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get the articles of a story cluster, oldest first
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<List<NewsSummary>> getClusterMembers(@PathVariable("id") Long id) {
+        List<NewsSummary> members = newsRepository.findClusterMembers(id);
+        if (members.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(members);
+    }
+}
@@ -0,0 +1,15 @@
+package com.news2option.dto;
+
+import com.news2option.model.IndustryImpact;
+
+import java.time.LocalDateTime;
+
+/**
+ * One flattened analysis / industry / company row, used to read a day's impact
+ * set in a single query. Industry and company columns are null when the
+ * analysis has no industries or the industry has no companies.
+ */
+public record AnalysisImpactRow(Long analysisId, String newsTitle, String analysisContent, LocalDateTime analyzedAt,
+                                Long industryId, String industryName, IndustryImpact.ImpactType industryImpactType, Integer industryImpactScore,
+                                String companyName, String stockSymbol, IndustryImpact.ImpactType companyImpactType, Integer companyImpactScore) {
+}
@@ -0,0 +1,9 @@
+package com.news2option.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view projection of a news analysis, without its impact graph
+ */
+public record AnalysisSummary(Long id, Long newsId, String newsTitle, String source, LocalDateTime analyzedAt) {
+}
@@ -0,0 +1,10 @@
+package com.news2option.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One archive segment: the articles published from {@code from} up to, but
+ * excluding, {@code until}
+ */
+public record ArchivePartition(String name, LocalDate from, LocalDate until, long articles, long bytes) {
+}
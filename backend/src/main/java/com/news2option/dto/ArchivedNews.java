@@ -0,0 +1,14 @@
+package com.news2option.dto;
+
+import com.news2option.model.IndustryImpact;
+import com.news2option.model.News;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One archived article with its analysis and impacts; the analysis fields are null
+ * when the article was never analysed
+ */
+public record ArchivedNews(News news, String analysisContent, LocalDateTime analyzedAt, List<IndustryImpact> industryImpacts) {
+}
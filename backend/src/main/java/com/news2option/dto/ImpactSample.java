@@ -0,0 +1,12 @@
+package com.news2option.dto;
+
+import com.news2option.model.IndustryImpact;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single industry or company impact with the time of its analysis, used to
+ * backfill impact rollups
+ */
+public record ImpactSample(LocalDateTime analyzedAt, String key, IndustryImpact.ImpactType impactType, Integer impactScore) {
+}
@@ -0,0 +1,26 @@
+package com.news2option.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Impact counts and scores for one industry or ticker, either for a single time
+ * bucket or summed over a range of buckets (then {@code bucketStart} is null)
+ */
+public record ImpactTotals(String key, LocalDateTime bucketStart, long positiveCount, long negativeCount,
+                           long neutralCount, long count, long scoreSum, double averageScore) {
+
+    public ImpactTotals(String key, LocalDateTime bucketStart, long positiveCount, long negativeCount,
+                        long neutralCount, long scoreSum) {
+        this(key, bucketStart, positiveCount, negativeCount, neutralCount,
+                positiveCount + negativeCount + neutralCount, scoreSum,
+                averageOf(scoreSum, positiveCount + negativeCount + neutralCount));
+    }
+
+    public ImpactTotals(String key, long positiveCount, long negativeCount, long neutralCount, long scoreSum) {
+        this(key, null, positiveCount, negativeCount, neutralCount, scoreSum);
+    }
+
+    private static double averageOf(long scoreSum, long count) {
+        return count == 0 ? 0 : (double) scoreSum / count;
+    }
+}
@@ -0,0 +1,9 @@
+package com.news2option.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view projection of a news article, without its content
+ */
+public record NewsSummary(Long id, String title, String source, String url, LocalDateTime publishedAt) {
+}
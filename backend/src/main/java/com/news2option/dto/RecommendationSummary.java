@@ -0,0 +1,13 @@
+package com.news2option.dto;
+
+import com.news2option.model.DailyInvestmentRecommendation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * List-view projection of a recommendation snapshot, without its investments
+ */
+public record RecommendationSummary(Long id, LocalDate date, Integer version, LocalDateTime generatedAt,
+                                    DailyInvestmentRecommendation.InvestmentSentiment overallSentiment) {
+}
@@ -0,0 +1,10 @@
+package com.news2option.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flattened news article and analysis text, used to rebuild the search index
+ */
+public record SearchDocument(Long newsId, String title, String content, String source, String url,
+                             LocalDateTime publishedAt, String analysisContent) {
+}
@@ -0,0 +1,11 @@
+package com.news2option.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One ranked search result. Highlight fields hold matching passages with terms
+ * wrapped in {@code <b>} tags, or null when the field did not match.
+ */
+public record SearchHit(Long id, String title, String source, String url, LocalDateTime publishedAt, float score,
+                        String titleHighlight, String contentHighlight, String analysisHighlight) {
+}
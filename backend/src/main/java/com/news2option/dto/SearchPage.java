@@ -0,0 +1,9 @@
+package com.news2option.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results
+ */
+public record SearchPage(long totalHits, int page, int size, List<SearchHit> hits) {
+}
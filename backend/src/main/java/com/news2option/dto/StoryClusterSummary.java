@@ -0,0 +1,9 @@
+package com.news2option.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A story cluster, described by its representative article and its member count
+ */
+public record StoryClusterSummary(Long id, String title, String source, LocalDateTime publishedAt, long size) {
+}
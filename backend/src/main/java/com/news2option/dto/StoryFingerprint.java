@@ -0,0 +1,9 @@
+package com.news2option.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * SimHash and story cluster of a stored article, used to warm the near-duplicate index
+ */
+public record StoryFingerprint(Long simHash, Long storyClusterId, LocalDateTime collectedAt) {
+}
@@ -0,0 +1,9 @@
+package com.news2option.event;
+
+import com.news2option.model.NewsAnalysis;
+
+/**
+ * Published after a news analysis and its impacts have been stored
+ */
+public record AnalysisSavedEvent(NewsAnalysis analysis) {
+}
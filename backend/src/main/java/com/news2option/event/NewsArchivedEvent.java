@@ -0,0 +1,10 @@
+package com.news2option.event;
+
+import java.util.List;
+
+/**
+ * Published after news articles have been moved to the archive and deleted from
+ * the primary store
+ */
+public record NewsArchivedEvent(List<Long> newsIds) {
+}
@@ -0,0 +1,9 @@
+package com.news2option.event;
+
+import com.news2option.model.News;
+
+/**
+ * Published after a collected news article has been stored
+ */
+public record NewsSavedEvent(News news) {
+}
@@ -0,0 +1,9 @@
+package com.news2option.event;
+
+import com.news2option.model.DailyInvestmentRecommendation;
+
+/**
+ * Published after a recommendation snapshot and its investments have been stored
+ */
+public record RecommendationSavedEvent(DailyInvestmentRecommendation recommendation) {
+}
@@ -0,0 +1,47 @@
+package com.news2option.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_analysis_task_due", columnList = "status, priority, nextAttemptAt"))
+public class AnalysisTask {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "analysis_task_seq")
+    @SequenceGenerator(name = "analysis_task_seq", sequenceName = "analysis_task_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(unique = true, nullable = false)
+    private Long newsId;
+    
+    @Enumerated(EnumType.STRING)
+    private TaskStatus status;
+    
+    private Integer attempts;
+    
+    /**
+     * Relevance score from pre-screening; higher scores are analyzed first
+     */
+    private Integer priority;
+    
+    private LocalDateTime nextAttemptAt;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime completedAt;
+    
+    @Column(length = 1000)
+    private String lastError;
+    
+    public enum TaskStatus {
+        PENDING, IN_PROGRESS, DONE, FAILED, SKIPPED
+    }
+}
@@ -1,5 +1,6 @@
 package com.news2option.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,9 +12,11 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_company_impact_stock_symbol", columnList = "stockSymbol"))
 public class CompanyImpact {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "company_impact_seq")
+    @SequenceGenerator(name = "company_impact_seq", sequenceName = "company_impact_seq", allocationSize = 50)
     private Long id;
     
     private String companyName;
@@ -25,6 +28,7 @@ public class CompanyImpact {
     
     private Integer impactScore;
     
+    @JsonIgnore
     @ManyToOne
     private IndustryImpact industryImpact;
 }
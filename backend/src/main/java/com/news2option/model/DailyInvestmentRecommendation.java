@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -13,13 +14,27 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_recommendation_date", columnList = "date, version, id"))
 public class DailyInvestmentRecommendation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_investment_recommendation_seq")
+    @SequenceGenerator(name = "daily_investment_recommendation_seq", sequenceName = "daily_investment_recommendation_seq", allocationSize = 50)
     private Long id;
     
     private LocalDate date;
     
+    /**
+     * Intraday snapshot number, starting at 1 for the first recommendation of the date
+     */
+    private Integer version;
+    
+    private LocalDateTime generatedAt;
+    
+    /**
+     * Analyses made up to this time are reflected in the snapshot
+     */
+    private LocalDateTime analysesThrough;
+    
     @Column(length = 5000)
     private String summary;
     
@@ -0,0 +1,48 @@
+package com.news2option.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * What the last fetch of a repeatedly read page (a source listing, feed or
+ * sitemap) returned, so the next fetch can be conditional
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FetchState {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fetch_state_seq")
+    @SequenceGenerator(name = "fetch_state_seq", sequenceName = "fetch_state_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(length = 2048)
+    private String url;
+    
+    @Column(length = 64, unique = true)
+    private String urlHash;
+    
+    private String etag;
+    
+    private String lastModified;
+    
+    /**
+     * SHA-256 of the last body, for servers that send no validators
+     */
+    @Column(length = 64)
+    private String contentHash;
+    
+    /**
+     * RSS or Atom feed advertised by a listing page, read in its place
+     */
+    @Column(length = 2048)
+    private String feedUrl;
+    
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,52 @@
+package com.news2option.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_impact_rollup_bucket",
+        columnNames = {"dimension", "dimensionKey", "grain", "bucketStart"}))
+public class ImpactRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "impact_rollup_seq")
+    @SequenceGenerator(name = "impact_rollup_seq", sequenceName = "impact_rollup_seq", allocationSize = 50)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Dimension dimension;
+    
+    @Column(nullable = false)
+    private String dimensionKey;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Grain grain;
+    
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+    
+    private long positiveCount;
+    
+    private long negativeCount;
+    
+    private long neutralCount;
+    
+    private long scoreSum;
+    
+    public enum Dimension {
+        INDUSTRY, TICKER
+    }
+    
+    public enum Grain {
+        HOURLY, DAILY
+    }
+}
@@ -1,5 +1,6 @@
 package com.news2option.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,7 +15,8 @@ import java.util.List;
 @AllArgsConstructor
 public class IndustryImpact {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "industry_impact_seq")
+    @SequenceGenerator(name = "industry_impact_seq", sequenceName = "industry_impact_seq", allocationSize = 50)
     private Long id;
     
     private String industryName;
@@ -24,6 +26,7 @@ public class IndustryImpact {
     
     private Integer impactScore;
     
+    @JsonIgnore
     @ManyToOne
     private NewsAnalysis newsAnalysis;
     
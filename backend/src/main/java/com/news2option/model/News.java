@@ -12,6 +12,11 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_news_published_at", columnList = "publishedAt, id"),
+        @Index(name = "idx_news_story_cluster", columnList = "storyClusterId"),
+        @Index(name = "idx_news_collected_at", columnList = "collectedAt")
+})
 public class News {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +31,19 @@ public class News {
     
     private String url;
     
+    @Column(length = 64, unique = true)
+    private String urlHash;
+    
+    /**
+     * 64-bit SimHash of the article text, null when there was too little text
+     */
+    private Long simHash;
+    
+    /**
+     * Id of the article representing this story; equal to {@code id} for the representative
+     */
+    private Long storyClusterId;
+    
     private LocalDateTime publishedAt;
     
     private LocalDateTime collectedAt;
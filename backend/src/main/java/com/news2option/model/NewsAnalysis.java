@@ -13,9 +13,11 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_news_analysis_analyzed_at", columnList = "analyzedAt, id"))
 public class NewsAnalysis {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_analysis_seq")
+    @SequenceGenerator(name = "news_analysis_seq", sequenceName = "news_analysis_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne
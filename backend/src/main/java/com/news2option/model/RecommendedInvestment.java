@@ -1,5 +1,6 @@
 package com.news2option.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,9 +12,11 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "idx_recommended_investment_stock_symbol", columnList = "stockSymbol"))
 public class RecommendedInvestment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recommended_investment_seq")
+    @SequenceGenerator(name = "recommended_investment_seq", sequenceName = "recommended_investment_seq", allocationSize = 50)
     private Long id;
     
     private String industryName;
@@ -30,6 +33,7 @@ public class RecommendedInvestment {
     @Column(length = 1000)
     private String rationale;
     
+    @JsonIgnore
     @ManyToOne
     private DailyInvestmentRecommendation recommendation;
     
@@ -0,0 +1,36 @@
+package com.news2option.repository;
+
+import com.news2option.model.AnalysisTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalysisTaskRepository extends JpaRepository<AnalysisTask, Long> {
+    List<AnalysisTask> findByStatusAndNextAttemptAtLessThanEqualOrderByPriorityDescNextAttemptAtAsc(
+            AnalysisTask.TaskStatus status, LocalDateTime now, Pageable pageable);
+    List<AnalysisTask> findByNewsIdIn(Collection<Long> newsIds);
+    long countByStatus(AnalysisTask.TaskStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("update AnalysisTask t set t.status = :to where t.status = :from")
+    int updateStatus(@Param("from") AnalysisTask.TaskStatus from, @Param("to") AnalysisTask.TaskStatus to);
+
+    @Modifying
+    @Transactional
+    @Query("update AnalysisTask t set t.status = :to, t.completedAt = :now, t.lastError = null " +
+            "where t.status = :from and exists (select a.id from NewsAnalysis a where a.news.id = t.newsId)")
+    int completeAnalyzed(@Param("from") AnalysisTask.TaskStatus from, @Param("to") AnalysisTask.TaskStatus to, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from AnalysisTask t where t.newsId in :newsIds")
+    int deleteByNewsIdIn(@Param("newsIds") Collection<Long> newsIds);
+}
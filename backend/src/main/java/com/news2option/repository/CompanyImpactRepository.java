@@ -1,14 +1,34 @@
 package com.news2option.repository;
 
+import com.news2option.dto.ImpactSample;
 import com.news2option.model.CompanyImpact;
 import com.news2option.model.IndustryImpact;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CompanyImpactRepository extends JpaRepository<CompanyImpact, Long> {
     List<CompanyImpact> findByCompanyNameContainingIgnoreCase(String companyName);
     List<CompanyImpact> findByStockSymbol(String stockSymbol);
     List<CompanyImpact> findByImpactType(IndustryImpact.ImpactType impactType);
+    
+    @Query("select new com.news2option.dto.ImpactSample(a.analyzedAt, c.stockSymbol, c.impactType, c.impactScore) " +
+            "from CompanyImpact c join c.industryImpact i join i.newsAnalysis a " +
+            "where c.stockSymbol is not null order by a.analyzedAt")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ImpactSample> streamTickerSamplesInTimeOrder();
+    
+    @Modifying
+    @Query("delete from CompanyImpact c where c.industryImpact.id in " +
+            "(select i.id from IndustryImpact i join i.newsAnalysis a where a.news.id in :newsIds)")
+    int deleteByNewsIdIn(@Param("newsIds") Collection<Long> newsIds);
 }
@@ -1,13 +1,31 @@
 package com.news2option.repository;
 
+import com.news2option.dto.RecommendationSummary;
 import com.news2option.model.DailyInvestmentRecommendation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DailyInvestmentRecommendationRepository extends JpaRepository<DailyInvestmentRecommendation, Long> {
-    Optional<DailyInvestmentRecommendation> findByDate(LocalDate date);
-    Optional<DailyInvestmentRecommendation> findTopByOrderByDateDesc();
+    Optional<DailyInvestmentRecommendation> findTopByDateOrderByVersionDesc(LocalDate date);
+    Optional<DailyInvestmentRecommendation> findTopByOrderByDateDescVersionDesc();
+    
+    @Query("select new com.news2option.dto.RecommendationSummary(r.id, r.date, r.version, r.generatedAt, r.overallSentiment) " +
+            "from DailyInvestmentRecommendation r order by r.date desc, r.id desc")
+    List<RecommendationSummary> findSummaries(Pageable pageable);
+    
+    @Query("select new com.news2option.dto.RecommendationSummary(r.id, r.date, r.version, r.generatedAt, r.overallSentiment) " +
+            "from DailyInvestmentRecommendation r where r.date < :date or (r.date = :date and r.id < :id) " +
+            "order by r.date desc, r.id desc")
+    List<RecommendationSummary> findSummariesBefore(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+    
+    @Query("select new com.news2option.dto.RecommendationSummary(r.id, r.date, r.version, r.generatedAt, r.overallSentiment) " +
+            "from DailyInvestmentRecommendation r where r.date = :date order by r.version")
+    List<RecommendationSummary> findVersions(@Param("date") LocalDate date);
 }
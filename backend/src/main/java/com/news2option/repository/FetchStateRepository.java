@@ -0,0 +1,11 @@
+package com.news2option.repository;
+
+import com.news2option.model.FetchState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface FetchStateRepository extends JpaRepository<FetchState, Long> {
+    Optional<FetchState> findByUrlHash(String urlHash);
+}
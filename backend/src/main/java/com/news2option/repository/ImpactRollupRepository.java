@@ -0,0 +1,47 @@
+package com.news2option.repository;
+
+import com.news2option.dto.ImpactSample;
+import com.news2option.dto.ImpactTotals;
+import com.news2option.model.ImpactRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface ImpactRollupRepository extends JpaRepository<ImpactRollup, Long> {
+    Optional<ImpactRollup> findByDimensionAndDimensionKeyAndGrainAndBucketStart(ImpactRollup.Dimension dimension, String dimensionKey,
+                                                                              ImpactRollup.Grain grain, LocalDateTime bucketStart);
+    
+    @Query("select new com.news2option.dto.ImpactTotals(r.dimensionKey, r.bucketStart, r.positiveCount, r.negativeCount, r.neutralCount, r.scoreSum) " +
+            "from ImpactRollup r where r.dimension = :dimension and r.dimensionKey = :key and r.grain = :grain " +
+            "and r.bucketStart >= :from and r.bucketStart < :to order by r.bucketStart")
+    List<ImpactTotals> findBuckets(@Param("dimension") ImpactRollup.Dimension dimension, @Param("key") String key,
+                                   @Param("grain") ImpactRollup.Grain grain,
+                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("select new com.news2option.dto.ImpactTotals(r.dimensionKey, sum(r.positiveCount), sum(r.negativeCount), " +
+            "sum(r.neutralCount), sum(r.scoreSum)) " +
+            "from ImpactRollup r where r.dimension = :dimension and r.grain = :grain and r.bucketStart >= :from and r.bucketStart < :to " +
+            "group by r.dimensionKey order by sum(r.positiveCount + r.negativeCount + r.neutralCount) desc, r.dimensionKey")
+    List<ImpactTotals> findTopKeys(@Param("dimension") ImpactRollup.Dimension dimension, @Param("grain") ImpactRollup.Grain grain,
+                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable pageable);
+    
+    @Query("select new com.news2option.dto.ImpactSample(a.analyzedAt, i.industryName, i.impactType, i.impactScore) " +
+            "from IndustryImpact i join i.newsAnalysis a")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ImpactSample> streamIndustrySamples();
+    
+    @Query("select new com.news2option.dto.ImpactSample(a.analyzedAt, c.stockSymbol, c.impactType, c.impactScore) " +
+            "from CompanyImpact c join c.industryImpact i join i.newsAnalysis a")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ImpactSample> streamTickerSamples();
+}
@@ -2,11 +2,24 @@ package com.news2option.repository;
 
 import com.news2option.model.IndustryImpact;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface IndustryImpactRepository extends JpaRepository<IndustryImpact, Long> {
     List<IndustryImpact> findByIndustryNameContainingIgnoreCase(String industryName);
     List<IndustryImpact> findByImpactType(IndustryImpact.ImpactType impactType);
+    
+    @Query("select distinct i from IndustryImpact i left join fetch i.companyImpacts " +
+            "where i.newsAnalysis.news.id in :newsIds")
+    List<IndustryImpact> findWithCompaniesByNewsIdIn(@Param("newsIds") Collection<Long> newsIds);
+    
+    @Modifying
+    @Query("delete from IndustryImpact i where i.newsAnalysis.id in " +
+            "(select a.id from NewsAnalysis a where a.news.id in :newsIds)")
+    int deleteByNewsIdIn(@Param("newsIds") Collection<Long> newsIds);
 }
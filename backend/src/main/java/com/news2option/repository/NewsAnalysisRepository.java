@@ -1,13 +1,54 @@
 package com.news2option.repository;
 
+import com.news2option.dto.AnalysisImpactRow;
+import com.news2option.dto.AnalysisSummary;
 import com.news2option.model.NewsAnalysis;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NewsAnalysisRepository extends JpaRepository<NewsAnalysis, Long> {
     List<NewsAnalysis> findByAnalyzedAtAfter(LocalDateTime date);
     List<NewsAnalysis> findTop20ByOrderByAnalyzedAtDesc();
+    
+    @Query("select new com.news2option.dto.AnalysisSummary(a.id, n.id, n.title, n.source, a.analyzedAt) " +
+            "from NewsAnalysis a join a.news n order by a.analyzedAt desc, a.id desc")
+    List<AnalysisSummary> findSummaries(Pageable pageable);
+    
+    @Query("select new com.news2option.dto.AnalysisSummary(a.id, n.id, n.title, n.source, a.analyzedAt) " +
+            "from NewsAnalysis a join a.news n where a.analyzedAt < :analyzedAt or (a.analyzedAt = :analyzedAt and a.id < :id) " +
+            "order by a.analyzedAt desc, a.id desc")
+    List<AnalysisSummary> findSummariesBefore(@Param("analyzedAt") LocalDateTime analyzedAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query("select new com.news2option.dto.AnalysisImpactRow(a.id, n.title, a.analysisContent, a.analyzedAt, " +
+            "i.id, i.industryName, i.impactType, i.impactScore, c.companyName, c.stockSymbol, c.impactType, c.impactScore) " +
+            "from NewsAnalysis a join a.news n left join a.industryImpacts i left join i.companyImpacts c " +
+            "where a.analyzedAt > :since and a.analyzedAt <= :until order by a.id, i.id, c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<AnalysisImpactRow> streamImpactRowsAnalyzedBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+    
+    long countByAnalyzedAtAfter(LocalDateTime since);
+    
+    boolean existsByNewsId(Long newsId);
+    
+    @Query("select a.news.id from NewsAnalysis a where a.news.id in :newsIds")
+    List<Long> findAnalyzedNewsIds(@Param("newsIds") Collection<Long> newsIds);
+    
+    @Query("select distinct a from NewsAnalysis a left join fetch a.industryImpacts where a.news.id in :newsIds")
+    List<NewsAnalysis> findWithImpactsByNewsIdIn(@Param("newsIds") Collection<Long> newsIds);
+    
+    @Modifying
+    @Query("delete from NewsAnalysis a where a.news.id in :newsIds")
+    int deleteByNewsIdIn(@Param("newsIds") Collection<Long> newsIds);
 }
@@ -1,14 +1,80 @@
 package com.news2option.repository;
 
+import com.news2option.dto.NewsSummary;
+import com.news2option.dto.SearchDocument;
+import com.news2option.dto.StoryClusterSummary;
+import com.news2option.dto.StoryFingerprint;
+import com.news2option.model.AnalysisTask;
 import com.news2option.model.News;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NewsRepository extends JpaRepository<News, Long> {
     List<News> findByPublishedAtAfter(LocalDateTime date);
-    List<News> findByTitleContainingIgnoreCase(String keyword);
     List<News> findTop20ByOrderByPublishedAtDesc();
+    boolean existsByUrlHash(String urlHash);
+    List<News> findByUrlHashIsNull();
+    List<News> findByStoryClusterIdIsNullOrderByIdAsc();
+    
+    @Query("select new com.news2option.dto.StoryFingerprint(n.simHash, n.storyClusterId, n.collectedAt) " +
+            "from News n where n.simHash is not null and n.storyClusterId is not null and n.collectedAt >= :since " +
+            "order by n.collectedAt")
+    Stream<StoryFingerprint> streamFingerprintsSince(@Param("since") LocalDateTime since);
+    
+    @Query("select new com.news2option.dto.StoryClusterSummary(r.id, r.title, r.source, r.publishedAt, count(m.id)) " +
+            "from News r join News m on m.storyClusterId = r.id where r.storyClusterId = r.id " +
+            "group by r.id, r.title, r.source, r.publishedAt order by r.publishedAt desc, r.id desc")
+    List<StoryClusterSummary> findClusterSummaries(Pageable pageable);
+    
+    @Query("select new com.news2option.dto.StoryClusterSummary(r.id, r.title, r.source, r.publishedAt, count(m.id)) " +
+            "from News r join News m on m.storyClusterId = r.id where r.storyClusterId = r.id " +
+            "and (r.publishedAt < :publishedAt or (r.publishedAt = :publishedAt and r.id < :id)) " +
+            "group by r.id, r.title, r.source, r.publishedAt order by r.publishedAt desc, r.id desc")
+    List<StoryClusterSummary> findClusterSummariesBefore(@Param("publishedAt") LocalDateTime publishedAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query("select distinct n.storyClusterId from News n where n.storyClusterId in :clusterIds and (" +
+            "exists (select t.id from AnalysisTask t where t.newsId = n.id and t.status in :statuses) " +
+            "or exists (select a.id from NewsAnalysis a where a.news.id = n.id))")
+    List<Long> findClusterIdsAnalyzedOrQueued(@Param("clusterIds") Collection<Long> clusterIds,
+                                              @Param("statuses") Collection<AnalysisTask.TaskStatus> statuses);
+    
+    @Query("select new com.news2option.dto.NewsSummary(n.id, n.title, n.source, n.url, n.publishedAt) " +
+            "from News n where n.storyClusterId = :clusterId order by n.publishedAt, n.id")
+    List<NewsSummary> findClusterMembers(@Param("clusterId") Long clusterId);
+    
+    @Query("select n.urlHash from News n where n.urlHash is not null")
+    Stream<String> streamAllUrlHashes();
+    
+    @Query("select new com.news2option.dto.SearchDocument(n.id, n.title, n.content, n.source, n.url, n.publishedAt, a.analysisContent) " +
+            "from News n left join NewsAnalysis a on a.news = n order by n.id, a.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<SearchDocument> streamSearchDocuments();
+    
+    @Query("select new com.news2option.dto.NewsSummary(n.id, n.title, n.source, n.url, n.publishedAt) " +
+            "from News n order by n.publishedAt desc, n.id desc")
+    List<NewsSummary> findSummaries(Pageable pageable);
+    
+    @Query("select new com.news2option.dto.NewsSummary(n.id, n.title, n.source, n.url, n.publishedAt) " +
+            "from News n where n.publishedAt < :publishedAt or (n.publishedAt = :publishedAt and n.id < :id) " +
+            "order by n.publishedAt desc, n.id desc")
+    List<NewsSummary> findSummariesBefore(@Param("publishedAt") LocalDateTime publishedAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query("select n.id from News n where n.collectedAt < :before order by n.collectedAt, n.id")
+    List<Long> findIdsCollectedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+    
+    @Modifying
+    @Query("delete from News n where n.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
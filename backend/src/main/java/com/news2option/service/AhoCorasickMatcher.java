@@ -0,0 +1,125 @@
+package com.news2option.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.IntConsumer;
+
+/**
+ * Multi-pattern string matcher. All patterns are compiled into one automaton, so a
+ * text is scanned once regardless of dictionary size. Only whole-word occurrences
+ * are reported.
+ */
+class AhoCorasickMatcher {
+
+    private final boolean ignoreCase;
+    private final int[] patternLengths;
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<int[]> outputs = new ArrayList<>();
+    private int[] failure;
+
+    AhoCorasickMatcher(List<String> patterns, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        this.patternLengths = new int[patterns.size()];
+        newNode();
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = normalize(patterns.get(id));
+            patternLengths[id] = pattern.length();
+            if (!pattern.isEmpty()) {
+                insert(pattern, id);
+            }
+        }
+        buildFailureLinks();
+    }
+
+    /**
+     * Report the id of each pattern occurring in the text as a whole word; a pattern
+     * occurring several times is reported each time
+     */
+    void forEachMatch(String text, IntConsumer onMatch) {
+        if (text == null) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = ignoreCase ? Character.toLowerCase(text.charAt(i)) : text.charAt(i);
+            Integer next;
+            while ((next = transitions.get(state).get(c)) == null && state != 0) {
+                state = failure[state];
+            }
+            state = next == null ? 0 : next;
+            
+            for (int id : outputs.get(state)) {
+                int start = i - patternLengths[id] + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    onMatch.accept(id);
+                }
+            }
+        }
+    }
+
+    private void insert(String pattern, int id) {
+        int state = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            Integer next = transitions.get(state).get(pattern.charAt(i));
+            if (next == null) {
+                next = newNode();
+                transitions.get(state).put(pattern.charAt(i), next);
+            }
+            state = next;
+        }
+        int[] existing = outputs.get(state);
+        int[] merged = Arrays.copyOf(existing, existing.length + 1);
+        merged[existing.length] = id;
+        outputs.set(state, merged);
+    }
+
+    /**
+     * Breadth-first pass linking every state to the longest proper suffix that is
+     * also a prefix in the trie, and inheriting that state's matches
+     */
+    private void buildFailureLinks() {
+        failure = new int[transitions.size()];
+        Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure[state];
+                Integer target;
+                while ((target = transitions.get(fallback).get(edge.getKey())) == null && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = target == null || target == child ? 0 : target;
+                
+                int[] inherited = outputs.get(failure[child]);
+                if (inherited.length > 0) {
+                    int[] own = outputs.get(child);
+                    int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+                    System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+                    outputs.set(child, merged);
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private int newNode() {
+        transitions.add(new HashMap<>());
+        outputs.add(new int[0]);
+        return transitions.size() - 1;
+    }
+
+    private String normalize(String pattern) {
+        String trimmed = pattern.trim();
+        return ignoreCase ? trimmed.toLowerCase() : trimmed;
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+}
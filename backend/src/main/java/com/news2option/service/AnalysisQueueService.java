@@ -0,0 +1,433 @@
+package com.news2option.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.news2option.model.AnalysisTask;
+import com.news2option.model.News;
+import com.news2option.model.NewsAnalysis;
+import com.news2option.repository.AnalysisTaskRepository;
+import com.news2option.repository.NewsAnalysisRepository;
+import com.news2option.repository.NewsRepository;
+import io.micrometer.observation.Observation;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent work queue for news analysis. Collected articles are pre-screened for
+ * relevance and story duplication and recorded as pending or skipped tasks; a scheduled dispatcher packs
+ * due tasks into batches, most relevant first, and hands them to a bounded worker
+ * pool, Gemini calls are throttled by a token bucket, and transient failures are
+ * retried with exponential backoff. A task whose article already has an analysis,
+ * for example because the process died between storing it and completing the
+ * task, is completed without another Gemini call.
+ */
+@Service
+@Slf4j
+public class AnalysisQueueService implements SmartInitializingSingleton {
+
+    /**
+     * Task states that mean an article is analysed or will be
+     */
+    private static final List<AnalysisTask.TaskStatus> LIVE_STATUSES = List.of(
+            AnalysisTask.TaskStatus.PENDING, AnalysisTask.TaskStatus.IN_PROGRESS, AnalysisTask.TaskStatus.DONE);
+
+    private final AnalysisTaskRepository taskRepository;
+    private final NewsRepository newsRepository;
+    private final NewsAnalysisRepository newsAnalysisRepository;
+    private final NewsAnalysisService newsAnalysisService;
+    private final RelevanceScorer relevanceScorer;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final PipelineMetrics metrics;
+    private final ExecutorService workers;
+    private final Semaphore freeWorkers;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final int batchMaxArticles;
+    private final int batchMaxPromptTokens;
+
+    public AnalysisQueueService(AnalysisTaskRepository taskRepository,
+                                NewsRepository newsRepository,
+                                NewsAnalysisRepository newsAnalysisRepository,
+                                NewsAnalysisService newsAnalysisService,
+                                RelevanceScorer relevanceScorer,
+                                PipelineMetrics metrics,
+                                @Value("${analysis.queue.concurrency:4}") int concurrency,
+                                @Value("${analysis.queue.max-attempts:5}") int maxAttempts,
+                                @Value("${analysis.queue.initial-backoff-ms:5000}") long initialBackoffMillis,
+                                @Value("${analysis.rate-limit.requests-per-minute:60}") double requestsPerMinute,
+                                @Value("${analysis.rate-limit.burst:5}") int burst,
+                                @Value("${analysis.batch.max-articles:8}") int batchMaxArticles,
+                                @Value("${analysis.batch.max-prompt-tokens:6000}") int batchMaxPromptTokens) {
+        this.taskRepository = taskRepository;
+        this.newsRepository = newsRepository;
+        this.newsAnalysisRepository = newsAnalysisRepository;
+        this.newsAnalysisService = newsAnalysisService;
+        this.relevanceScorer = relevanceScorer;
+        this.rateLimiter = new TokenBucketRateLimiter(requestsPerMinute, burst);
+        this.metrics = metrics;
+        this.workers = Executors.newFixedThreadPool(concurrency, workerThreadFactory());
+        this.freeWorkers = new Semaphore(concurrency);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.batchMaxArticles = Math.max(1, batchMaxArticles);
+        this.batchMaxPromptTokens = batchMaxPromptTokens;
+    }
+
+    /**
+     * Add collected news to the queue, ignoring articles that already have a task.
+     * Near-duplicates of a story that is already analysed or queued, and articles
+     * that fail the relevance check, are recorded as skipped. A story whose first
+     * article was skipped is still analysed through the next relevant copy.
+     */
+    public void enqueue(List<News> newsList) {
+        if (newsList.isEmpty()) {
+            return;
+        }
+        
+        Set<Long> queued = taskRepository.findByNewsIdIn(newsList.stream().map(News::getId).toList()).stream()
+                .map(AnalysisTask::getNewsId)
+                .collect(Collectors.toCollection(HashSet::new));
+        List<Long> clusterIds = newsList.stream().map(News::getStoryClusterId).filter(Objects::nonNull).distinct().toList();
+        Set<Long> coveredStories = clusterIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(newsRepository.findClusterIdsAnalyzedOrQueued(clusterIds, LIVE_STATUSES));
+        
+        // Story representatives first, so a representative queued in this call covers its copies
+        List<News> ordered = newsList.stream()
+                .sorted(Comparator.comparing(AnalysisQueueService::isDuplicateStory))
+                .toList();
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<AnalysisTask> tasks = new ArrayList<>();
+        int duplicates = 0;
+        for (News news : ordered) {
+            if (!queued.add(news.getId())) {
+                continue;
+            }
+            boolean duplicate = isDuplicateStory(news) && coveredStories.contains(news.getStoryClusterId());
+            if (duplicate) {
+                duplicates++;
+            }
+            RelevanceScorer.Assessment assessment = duplicate
+                    ? new RelevanceScorer.Assessment(false, 0, "Near-duplicate of news " + news.getStoryClusterId())
+                    : relevanceScorer.assess(news);
+            if (assessment.relevant() && news.getStoryClusterId() != null) {
+                coveredStories.add(news.getStoryClusterId());
+            }
+            AnalysisTask.AnalysisTaskBuilder task = AnalysisTask.builder()
+                    .newsId(news.getId())
+                    .attempts(0)
+                    .priority(assessment.score())
+                    .nextAttemptAt(now)
+                    .createdAt(now);
+            if (assessment.relevant()) {
+                task.status(AnalysisTask.TaskStatus.PENDING);
+            } else {
+                log.debug("Skipping analysis of news {}: {}", news.getId(), assessment.reason());
+                task.status(AnalysisTask.TaskStatus.SKIPPED).completedAt(now).lastError(assessment.reason());
+            }
+            tasks.add(task.build());
+        }
+        
+        taskRepository.saveAll(tasks);
+        long skipped = tasks.stream().filter(task -> task.getStatus() == AnalysisTask.TaskStatus.SKIPPED).count();
+        metrics.tasksQueued(tasks.size() - skipped);
+        metrics.tasksSkipped("duplicate", duplicates);
+        metrics.tasksSkipped("irrelevant", skipped - duplicates);
+        log.info("Queued {} news articles for analysis, skipped {} as irrelevant", tasks.size() - skipped, skipped);
+    }
+
+    /**
+     * Recover before the context is refreshed, which is when dispatch starts, so only
+     * tasks left in progress by a previous run are reset and never those this run has claimed
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        recoverInterruptedTasks();
+    }
+
+    /**
+     * Tasks left in progress by a previous run never finished; complete those whose
+     * analysis was stored before the run ended and make the rest due again
+     */
+    public void recoverInterruptedTasks() {
+        int analyzed = taskRepository.completeAnalyzed(AnalysisTask.TaskStatus.IN_PROGRESS, AnalysisTask.TaskStatus.DONE, LocalDateTime.now());
+        if (analyzed > 0) {
+            log.info("Completed {} interrupted analysis tasks whose analysis was already stored", analyzed);
+        }
+        int recovered = taskRepository.updateStatus(AnalysisTask.TaskStatus.IN_PROGRESS, AnalysisTask.TaskStatus.PENDING);
+        if (recovered > 0) {
+            log.info("Re-queued {} interrupted analysis tasks", recovered);
+        }
+    }
+
+    /**
+     * Hand due tasks to idle workers, packing first attempts into multi-article
+     * batches that fit the prompt token budget
+     */
+    @Scheduled(fixedDelayString = "${analysis.queue.poll-interval-ms:2000}")
+    public void dispatch() {
+        int idle = freeWorkers.availablePermits();
+        if (idle == 0) {
+            return;
+        }
+        
+        List<AnalysisTask> candidates = taskRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByPriorityDescNextAttemptAtAsc(
+                AnalysisTask.TaskStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, idle * batchMaxArticles));
+        if (candidates.isEmpty()) {
+            return;
+        }
+        
+        Set<Long> analyzed = new HashSet<>(newsAnalysisRepository.findAnalyzedNewsIds(
+                candidates.stream().map(AnalysisTask::getNewsId).toList()));
+        List<AnalysisTask> due = new ArrayList<>(candidates.size());
+        for (AnalysisTask task : candidates) {
+            if (analyzed.contains(task.getNewsId())) {
+                completeAnalyzed(task);
+            } else {
+                due.add(task);
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, News> newsById = newsRepository.findAllById(due.stream().map(AnalysisTask::getNewsId).toList()).stream()
+                .collect(Collectors.toMap(News::getId, Function.identity()));
+        
+        for (List<AnalysisTask> batch : planBatches(due, newsById)) {
+            if (!freeWorkers.tryAcquire()) {
+                break;
+            }
+            batch.forEach(task -> task.setStatus(AnalysisTask.TaskStatus.IN_PROGRESS));
+            List<AnalysisTask> claimed = taskRepository.saveAll(batch);
+            workers.execute(() -> {
+                try {
+                    processBatch(claimed, newsById);
+                } finally {
+                    freeWorkers.release();
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Group due tasks greedily into batches bounded by article count and estimated
+     * prompt tokens. Retries are always analyzed on their own so one bad article
+     * cannot keep failing a whole batch.
+     */
+    private List<List<AnalysisTask>> planBatches(List<AnalysisTask> due, Map<Long, News> newsById) {
+        List<List<AnalysisTask>> batches = new ArrayList<>();
+        List<AnalysisTask> current = new ArrayList<>();
+        int currentTokens = NewsAnalysisService.BATCH_PROMPT_OVERHEAD_TOKENS;
+        
+        for (AnalysisTask task : due) {
+            News news = newsById.get(task.getNewsId());
+            if (news == null || task.getAttempts() > 0 || batchMaxArticles <= 1) {
+                batches.add(List.of(task));
+                continue;
+            }
+            
+            int tokens = newsAnalysisService.estimatePromptTokens(news);
+            if (!current.isEmpty() && (current.size() >= batchMaxArticles || currentTokens + tokens > batchMaxPromptTokens)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentTokens = NewsAnalysisService.BATCH_PROMPT_OVERHEAD_TOKENS;
+            }
+            current.add(task);
+            currentTokens += tokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    /**
+     * Analyze a batch with one call, falling back to single-article calls for any
+     * article the batch response did not cover
+     */
+    private void processBatch(List<AnalysisTask> tasks, Map<Long, News> newsById) {
+        if (tasks.size() == 1) {
+            process(tasks.get(0), newsById.get(tasks.get(0).getNewsId()));
+            return;
+        }
+        
+        Observation observation = metrics.stage("analysis.batch")
+                .highCardinalityKeyValue(PipelineMetrics.NEWS_ID, tasks.stream()
+                        .map(task -> String.valueOf(task.getNewsId()))
+                        .collect(Collectors.joining(",")))
+                .start();
+        Map<Long, NewsAnalysis> analyses;
+        try {
+            analyses = observation.scopedChecked(() -> {
+                rateLimiter.acquire();
+                return newsAnalysisService.analyzeNewsBatch(tasks.stream()
+                        .map(task -> newsById.get(task.getNewsId()))
+                        .toList());
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tasks.forEach(this::requeue);
+            return;
+        } catch (Exception e) {
+            observation.error(e);
+            tasks.forEach(task -> {
+                task.setAttempts(task.getAttempts() + 1);
+                handleFailure(task, e);
+            });
+            return;
+        } finally {
+            observation.stop();
+        }
+        
+        for (AnalysisTask task : tasks) {
+            if (analyses.containsKey(task.getNewsId())) {
+                complete(task);
+            } else {
+                process(task, newsById.get(task.getNewsId()));
+            }
+        }
+    }
+
+    private void process(AnalysisTask task, News news) {
+        if (newsAnalysisRepository.existsByNewsId(task.getNewsId())) {
+            completeAnalyzed(task);
+            return;
+        }
+        task.setAttempts(task.getAttempts() + 1);
+        if (news == null) {
+            fail(task, "News " + task.getNewsId() + " no longer exists");
+            return;
+        }
+        
+        Observation observation = metrics.stage("analysis.article")
+                .highCardinalityKeyValue(PipelineMetrics.NEWS_ID, String.valueOf(news.getId()))
+                .highCardinalityKeyValue("attempt", String.valueOf(task.getAttempts()));
+        observation.observe(() -> {
+            try {
+                rateLimiter.acquire();
+                newsAnalysisService.analyzeNews(news);
+                complete(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                requeue(task);
+            } catch (Exception e) {
+                observation.error(e);
+                handleFailure(task, e);
+            }
+        });
+    }
+
+    private void complete(AnalysisTask task) {
+        metrics.taskOutcome("done");
+        task.setStatus(AnalysisTask.TaskStatus.DONE);
+        task.setCompletedAt(LocalDateTime.now());
+        task.setLastError(null);
+        taskRepository.save(task);
+    }
+
+    private void completeAnalyzed(AnalysisTask task) {
+        log.info("News {} already has an analysis, completing its task", task.getNewsId());
+        complete(task);
+    }
+
+    private void requeue(AnalysisTask task) {
+        task.setStatus(AnalysisTask.TaskStatus.PENDING);
+        taskRepository.save(task);
+    }
+
+    private void handleFailure(AnalysisTask task, Exception e) {
+        if (!isRetryable(e) || task.getAttempts() >= maxAttempts) {
+            log.error("Giving up on analysis of news {} after {} attempts: {}", task.getNewsId(), task.getAttempts(), e.getMessage(), e);
+            fail(task, e.getMessage());
+        } else {
+            metrics.taskOutcome("retry");
+            long backoff = initialBackoffMillis << Math.min(task.getAttempts() - 1, 16);
+            long jitter = ThreadLocalRandom.current().nextLong(backoff / 4 + 1);
+            log.warn("Analysis of news {} failed (attempt {}), retrying in {} ms: {}", task.getNewsId(), task.getAttempts(), backoff + jitter, e.getMessage());
+            task.setStatus(AnalysisTask.TaskStatus.PENDING);
+            task.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoff + jitter)));
+            task.setLastError(truncate(e.getMessage()));
+            taskRepository.save(task);
+        }
+    }
+
+    private void fail(AnalysisTask task, String error) {
+        metrics.taskOutcome("failed");
+        task.setStatus(AnalysisTask.TaskStatus.FAILED);
+        task.setCompletedAt(LocalDateTime.now());
+        task.setLastError(truncate(error));
+        taskRepository.save(task);
+    }
+
+    /**
+     * Whether an article joined a story started by another article
+     */
+    private static boolean isDuplicateStory(News news) {
+        return news.getStoryClusterId() != null && !news.getStoryClusterId().equals(news.getId());
+    }
+
+    /**
+     * Client errors other than rate limiting will not succeed on retry, and neither
+     * will constraint violations, unreadable JSON or values outside an enum
+     */
+    static boolean isRetryable(Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException
+                    || cause instanceof JsonProcessingException
+                    || cause instanceof IllegalArgumentException) {
+                return false;
+            }
+        }
+        return !(e instanceof HttpClientErrorException clientError)
+                || clientError.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "analysis-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.news2option.service;
+
+import com.news2option.model.FetchState;
+import com.news2option.repository.FetchStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Fetch state of the listings, feeds and sitemaps the collector reads on every
+ * run, keyed by URL hash
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FetchStateStore {
+
+    private final FetchStateRepository fetchStateRepository;
+
+    /**
+     * Stored state for a URL, or a new unsaved one if it was never fetched
+     */
+    public FetchState load(String url) {
+        String urlHash = UrlDeduplicator.hash(url);
+        return fetchStateRepository.findByUrlHash(urlHash)
+                .orElseGet(() -> FetchState.builder().url(url).urlHash(urlHash).build());
+    }
+
+    /**
+     * Validators to send with the next fetch, or null if there are none
+     */
+    public static PageFetcher.Validators validatorsOf(FetchState state) {
+        if (state.getEtag() == null && state.getLastModified() == null && state.getContentHash() == null) {
+            return null;
+        }
+        return new PageFetcher.Validators(state.getEtag(), state.getLastModified(), state.getContentHash());
+    }
+
+    /**
+     * Record new validators and a discovered feed; either may be null to keep the
+     * current value. Nothing is written when nothing changed.
+     */
+    public void update(FetchState state, PageFetcher.Validators validators, String feedUrl) {
+        boolean changed = false;
+        if (validators != null && !validators.equals(validatorsOf(state))) {
+            state.setEtag(validators.etag());
+            state.setLastModified(validators.lastModified());
+            state.setContentHash(validators.contentHash());
+            state.setChangedAt(LocalDateTime.now());
+            changed = true;
+        }
+        if (feedUrl != null && !Objects.equals(feedUrl, state.getFeedUrl())) {
+            state.setFeedUrl(feedUrl);
+            changed = true;
+        }
+        if (!changed) {
+            return;
+        }
+        
+        try {
+            FetchState saved = fetchStateRepository.save(state);
+            state.setId(saved.getId());
+        } catch (DataIntegrityViolationException e) {
+            // another collector run stored this URL first; its state is as good as ours
+            log.debug("Fetch state for {} was stored concurrently", state.getUrl());
+        }
+    }
+}
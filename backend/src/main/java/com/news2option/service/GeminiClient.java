@@ -0,0 +1,183 @@
+package com.news2option.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thin client for the Gemini generateContent endpoint. Responses are looked up
+ * in the content-addressed response cache before any request is sent. Requests
+ * that go out are observed as the gemini.request stage, and the token counts the
+ * API reports are recorded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeminiClient {
+
+    private final GeminiResponseCache responseCache;
+    private final RestTemplate restTemplate;
+    private final PipelineMetrics metrics;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${gemini.api.key}")
+    private String geminiApiKey;
+
+    @Value("${gemini.api.url}")
+    private String geminiApiUrl;
+
+    /**
+     * Send a prompt to Gemini and return the text of the first candidate
+     */
+    public String generateContent(String prompt) throws Exception {
+        String cacheKey = GeminiResponseCache.keyFor(geminiApiUrl, prompt);
+        String cached = responseCache.get(cacheKey);
+        if (cached != null) {
+            log.debug("Gemini response served from cache");
+            return cached;
+        }
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        
+        String url = geminiApiUrl + "?key=" + geminiApiKey;
+        
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(buildRequestBody(prompt), headers);
+        String response = requestStage("generate").observe(() -> restTemplate.postForObject(url, request, String.class));
+        
+        JsonNode responseJson = objectMapper.readTree(response);
+        recordTokens(responseJson.path("usageMetadata"));
+        String text = responseJson.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
+        
+        if (!text.isEmpty()) {
+            responseCache.put(cacheKey, text);
+        }
+        return text;
+    }
+
+    /**
+     * Send a prompt to the streamGenerateContent endpoint and pass each text fragment
+     * of the first candidate to the consumer as it arrives. A cached response is
+     * replayed as a single fragment.
+     */
+    public void streamContent(String prompt, TextConsumer consumer) throws Exception {
+        String cacheKey = GeminiResponseCache.keyFor(geminiApiUrl, prompt);
+        String cached = responseCache.get(cacheKey);
+        if (cached != null) {
+            log.debug("Gemini response served from cache");
+            consumer.accept(cached);
+            return;
+        }
+        
+        String url = streamUrl() + "?alt=sse&key=" + geminiApiKey;
+        byte[] body = objectMapper.writeValueAsBytes(buildRequestBody(prompt));
+        StringBuilder fullText = new StringBuilder();
+        JsonNode[] usage = {null};
+        
+        requestStage("stream").observe(() -> restTemplate.execute(url, HttpMethod.POST, request -> {
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.getBody().write(body);
+        }, response -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    JsonNode event = objectMapper.readTree(line.substring(5).trim());
+                    if (event.has("usageMetadata")) {
+                        usage[0] = event.path("usageMetadata");
+                    }
+                    String text = event.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
+                    if (!text.isEmpty()) {
+                        fullText.append(text);
+                        consumer.accept(text);
+                    }
+                }
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Failed to consume streamed Gemini response: " + e.getMessage(), e);
+            }
+            return null;
+        }));
+        
+        if (usage[0] != null) {
+            recordTokens(usage[0]);
+        }
+        if (fullText.length() > 0) {
+            responseCache.put(cacheKey, fullText.toString());
+        }
+    }
+
+    /**
+     * Forget the cached response for a prompt, e.g. after it failed to parse
+     */
+    public void evict(String prompt) {
+        responseCache.evict(GeminiResponseCache.keyFor(geminiApiUrl, prompt));
+    }
+
+    private Observation requestStage(String mode) {
+        return metrics.stage("gemini.request")
+                .lowCardinalityKeyValue("mode", mode)
+                .lowCardinalityKeyValue("model", modelName());
+    }
+
+    /**
+     * Record the usage metadata of a response; streamed responses report running totals
+     */
+    private void recordTokens(JsonNode usageMetadata) {
+        if (usageMetadata.has("promptTokenCount")) {
+            metrics.geminiTokens("prompt", usageMetadata.path("promptTokenCount").asLong());
+        }
+        if (usageMetadata.has("candidatesTokenCount")) {
+            metrics.geminiTokens("response", usageMetadata.path("candidatesTokenCount").asLong());
+        }
+    }
+
+    private String modelName() {
+        int start = geminiApiUrl.lastIndexOf("/models/");
+        int end = geminiApiUrl.lastIndexOf(':');
+        return start >= 0 && end > start ? geminiApiUrl.substring(start + "/models/".length(), end) : "unknown";
+    }
+
+    private Map<String, Object> buildRequestBody(String prompt) {
+        Map<String, Object> requestBody = new HashMap<>();
+        Map<String, Object> contents = new HashMap<>();
+        Map<String, Object> parts = new HashMap<>();
+        
+        parts.put("text", prompt);
+        contents.put("parts", List.of(parts));
+        requestBody.put("contents", List.of(contents));
+        return requestBody;
+    }
+
+    private String streamUrl() {
+        return geminiApiUrl.replace(":generateContent", ":streamGenerateContent");
+    }
+
+    /**
+     * Receives streamed response text; may throw to abort the stream
+     */
+    @FunctionalInterface
+    public interface TextConsumer {
+        void accept(String text) throws Exception;
+    }
+}
@@ -0,0 +1,285 @@
+package com.news2option.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache of Gemini response texts keyed by a hash of the endpoint and
+ * prompt. A byte-bounded LRU map sits in front of a directory of one file per
+ * entry; both tiers expire entries after a TTL and the disk tier evicts the
+ * least recently written files once it exceeds its size budget.
+ */
+@Component
+@Slf4j
+public class GeminiResponseCache {
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final long memoryMaxBytes;
+    private final long diskMaxBytes;
+    private final Path directory;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private final AtomicLong diskBytes = new AtomicLong();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public GeminiResponseCache(@Value("${gemini.cache.enabled:true}") boolean enabled,
+                               @Value("${gemini.cache.ttl-hours:168}") long ttlHours,
+                               @Value("${gemini.cache.memory-max-bytes:16777216}") long memoryMaxBytes,
+                               @Value("${gemini.cache.disk-max-bytes:268435456}") long diskMaxBytes,
+                               @Value("${gemini.cache.dir:./data/gemini-cache}") String directory) {
+        this.enabled = enabled;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.diskMaxBytes = diskMaxBytes;
+        this.directory = Path.of(directory);
+        if (enabled) {
+            initDirectory();
+        }
+    }
+
+    /**
+     * Cache key for a prompt sent to a given endpoint
+     */
+    public static String keyFor(String endpoint, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(endpoint.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Look up a cached response, or null on a miss
+     */
+    public String get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (!isExpired(entry.storedAt(), now)) {
+                    memoryHits.incrementAndGet();
+                    return entry.value();
+                }
+                removeFromMemory(key);
+            }
+        }
+        
+        Entry entry = readFromDisk(key, now);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        diskHits.incrementAndGet();
+        putInMemory(key, entry);
+        return entry.value();
+    }
+
+    /**
+     * Store a response in both tiers
+     */
+    public void put(String key, String value) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = new Entry(value, System.currentTimeMillis());
+        putInMemory(key, entry);
+        writeToDisk(key, entry);
+    }
+
+    /**
+     * Drop a response, e.g. one that turned out to be unusable
+     */
+    public void evict(String key) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (memory) {
+            removeFromMemory(key);
+        }
+        deleteFile(pathFor(key));
+    }
+
+    public CacheStats getStats() {
+        synchronized (memory) {
+            return new CacheStats(memoryHits.get(), diskHits.get(), misses.get(), evictions.get(),
+                    memory.size(), memoryBytes, diskBytes.get());
+        }
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        synchronized (memory) {
+            removeFromMemory(key);
+            memory.put(key, entry);
+            memoryBytes += entry.sizeInBytes();
+            
+            Iterator<Map.Entry<String, Entry>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().getValue().sizeInBytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void removeFromMemory(String key) {
+        Entry removed = memory.remove(key);
+        if (removed != null) {
+            memoryBytes -= removed.sizeInBytes();
+        }
+    }
+
+    private Entry readFromDisk(String key, long now) {
+        Path path = pathFor(key);
+        try {
+            String content = Files.readString(path, StandardCharsets.UTF_8);
+            int newline = content.indexOf('\n');
+            long storedAt = Long.parseLong(content.substring(0, newline));
+            if (isExpired(storedAt, now)) {
+                deleteFile(path);
+                return null;
+            }
+            return new Entry(content.substring(newline + 1), storedAt);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable cache entry {}: {}", path, e.getMessage());
+            deleteFile(path);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        Path path = pathFor(key);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+            Files.writeString(temp, entry.storedAt() + "\n" + entry.value(), StandardCharsets.UTF_8);
+            long previousSize = Files.exists(path) ? Files.size(path) : 0;
+            long size = Files.size(temp);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (diskBytes.addAndGet(size - previousSize) > diskMaxBytes) {
+                evictFromDisk();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write cache entry {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete expired files, then the oldest ones, until the disk tier is back under
+     * ninety percent of its budget
+     */
+    private synchronized void evictFromDisk() {
+        long now = System.currentTimeMillis();
+        long target = diskMaxBytes * 9 / 10;
+        List<Path> files = listFiles();
+        files.sort(Comparator.comparing(this::lastModified));
+        for (Path file : files) {
+            boolean expired = isExpired(lastModified(file).toMillis(), now);
+            if (!expired && diskBytes.get() <= target) {
+                break;
+            }
+            deleteFile(file);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void initDirectory() {
+        try {
+            Files.createDirectories(directory);
+            long total = 0;
+            for (Path file : listFiles()) {
+                total += Files.size(file);
+            }
+            diskBytes.set(total);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot initialise Gemini cache directory " + directory, e);
+        }
+    }
+
+    private List<Path> listFiles() {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Failed to list cache directory {}: {}", directory, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            long size = Files.size(path);
+            if (Files.deleteIfExists(path)) {
+                diskBytes.addAndGet(-size);
+            }
+        } catch (NoSuchFileException e) {
+            // already gone
+        } catch (IOException e) {
+            log.warn("Failed to delete cache entry {}: {}", path, e.getMessage());
+        }
+    }
+
+    private FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private Path pathFor(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private boolean isExpired(long storedAt, long now) {
+        return now - storedAt > ttl.toMillis();
+    }
+
+    private record Entry(String value, long storedAt) {
+        long sizeInBytes() {
+            return 2L * value.length() + 64;
+        }
+    }
+
+    public record CacheStats(long memoryHits, long diskHits, long misses, long diskEvictions,
+                             int memoryEntries, long memoryBytes, long diskBytes) {
+    }
+}
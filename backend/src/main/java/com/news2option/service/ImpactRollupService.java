@@ -0,0 +1,206 @@
+package com.news2option.service;
+
+import com.news2option.dto.ImpactSample;
+import com.news2option.dto.ImpactTotals;
+import com.news2option.event.AnalysisSavedEvent;
+import com.news2option.model.CompanyImpact;
+import com.news2option.model.ImpactRollup;
+import com.news2option.model.IndustryImpact;
+import com.news2option.model.NewsAnalysis;
+import com.news2option.repository.ImpactRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains time-bucketed impact counts and score sums per industry and per ticker
+ * at hourly and daily grain. Every saved analysis adds its impacts to the matching
+ * buckets, so aggregate queries read a handful of rollup rows instead of scanning
+ * the raw impact tables.
+ */
+@Service
+@Slf4j
+public class ImpactRollupService implements SmartInitializingSingleton {
+
+    private final ImpactRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ImpactRollupService(ImpactRollupRepository rollupRepository, PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Backfill before the context is refreshed, which is when the analysis queue starts,
+     * so no analysis saved by this run can make the table look already filled
+     */
+    @Override
+    @Transactional
+    public void afterSingletonsInstantiated() {
+        backfillIfEmpty();
+    }
+
+    /**
+     * Build the rollups from existing impacts the first time the application starts
+     * with an empty rollup table
+     */
+    @Transactional
+    public synchronized void backfillIfEmpty() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        
+        Map<BucketKey, Delta> deltas = new HashMap<>();
+        try (Stream<ImpactSample> samples = rollupRepository.streamIndustrySamples()) {
+            samples.forEach(sample -> add(deltas, ImpactRollup.Dimension.INDUSTRY, sample));
+        }
+        try (Stream<ImpactSample> samples = rollupRepository.streamTickerSamples()) {
+            samples.forEach(sample -> add(deltas, ImpactRollup.Dimension.TICKER, sample));
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        List<ImpactRollup> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(delta.applyTo(key.newRollup())));
+        rollupRepository.saveAll(rows);
+        log.info("Backfilled {} impact rollup buckets", rows.size());
+    }
+
+    @EventListener
+    public void onAnalysisSaved(AnalysisSavedEvent event) {
+        NewsAnalysis analysis = event.analysis();
+        Map<BucketKey, Delta> deltas = new HashMap<>();
+        
+        if (analysis.getIndustryImpacts() != null) {
+            for (IndustryImpact industry : analysis.getIndustryImpacts()) {
+                add(deltas, ImpactRollup.Dimension.INDUSTRY, new ImpactSample(analysis.getAnalyzedAt(),
+                        industry.getIndustryName(), industry.getImpactType(), industry.getImpactScore()));
+                if (industry.getCompanyImpacts() == null) {
+                    continue;
+                }
+                for (CompanyImpact company : industry.getCompanyImpacts()) {
+                    add(deltas, ImpactRollup.Dimension.TICKER, new ImpactSample(analysis.getAnalyzedAt(),
+                            company.getStockSymbol(), company.getImpactType(), company.getImpactScore()));
+                }
+            }
+        }
+        
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            apply(deltas);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update impact rollups for analysis {}: {}", analysis.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Buckets for one industry or ticker in [from, to), oldest first
+     */
+    public List<ImpactTotals> getBuckets(ImpactRollup.Dimension dimension, String key, ImpactRollup.Grain grain,
+                                         LocalDateTime from, LocalDateTime to) {
+        return rollupRepository.findBuckets(dimension, normalizeKey(dimension, key), grain, from, to);
+    }
+
+    /**
+     * Industries or tickers with the most impacts in [from, to), summed over their buckets
+     */
+    public List<ImpactTotals> getTopKeys(ImpactRollup.Dimension dimension, ImpactRollup.Grain grain,
+                                         LocalDateTime from, LocalDateTime to, int limit) {
+        return rollupRepository.findTopKeys(dimension, grain, from, to, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Rollup rows are read-modify-written, so updates are serialised to keep
+     * concurrent analyses from losing each other's increments
+     */
+    private synchronized void apply(Map<BucketKey, Delta> deltas) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ImpactRollup> rows = new ArrayList<>(deltas.size());
+            deltas.forEach((key, delta) -> {
+                ImpactRollup rollup = rollupRepository.findByDimensionAndDimensionKeyAndGrainAndBucketStart(
+                                key.dimension(), key.dimensionKey(), key.grain(), key.bucketStart())
+                        .orElseGet(key::newRollup);
+                rows.add(delta.applyTo(rollup));
+            });
+            rollupRepository.saveAll(rows);
+        });
+    }
+
+    private static void add(Map<BucketKey, Delta> deltas, ImpactRollup.Dimension dimension, ImpactSample sample) {
+        String key = normalizeKey(dimension, sample.key());
+        if (key == null || sample.analyzedAt() == null || sample.impactType() == null) {
+            return;
+        }
+        int score = sample.impactScore() == null ? 0 : sample.impactScore();
+        
+        LocalDateTime hour = sample.analyzedAt().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime day = sample.analyzedAt().truncatedTo(ChronoUnit.DAYS);
+        deltas.computeIfAbsent(new BucketKey(dimension, key, ImpactRollup.Grain.HOURLY, hour), k -> new Delta())
+                .add(sample.impactType(), score);
+        deltas.computeIfAbsent(new BucketKey(dimension, key, ImpactRollup.Grain.DAILY, day), k -> new Delta())
+                .add(sample.impactType(), score);
+    }
+
+    /**
+     * Industry names are kept as written; tickers are upper-cased
+     */
+    private static String normalizeKey(ImpactRollup.Dimension dimension, String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        String trimmed = key.trim();
+        return dimension == ImpactRollup.Dimension.TICKER ? trimmed.toUpperCase() : trimmed;
+    }
+
+    private record BucketKey(ImpactRollup.Dimension dimension, String dimensionKey, ImpactRollup.Grain grain,
+                             LocalDateTime bucketStart) {
+        ImpactRollup newRollup() {
+            return ImpactRollup.builder()
+                    .dimension(dimension)
+                    .dimensionKey(dimensionKey)
+                    .grain(grain)
+                    .bucketStart(bucketStart)
+                    .build();
+        }
+    }
+
+    private static class Delta {
+        private long positive;
+        private long negative;
+        private long neutral;
+        private long scoreSum;
+        
+        void add(IndustryImpact.ImpactType type, int score) {
+            switch (type) {
+                case POSITIVE -> positive++;
+                case NEGATIVE -> negative++;
+                case NEUTRAL -> neutral++;
+            }
+            scoreSum += score;
+        }
+        
+        ImpactRollup applyTo(ImpactRollup rollup) {
+            rollup.setPositiveCount(rollup.getPositiveCount() + positive);
+            rollup.setNegativeCount(rollup.getNegativeCount() + negative);
+            rollup.setNeutralCount(rollup.getNeutralCount() + neutral);
+            rollup.setScoreSum(rollup.getScoreSum() + scoreSum);
+            return rollup;
+        }
+    }
+}
@@ -2,171 +2,137 @@ package com.news2option.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.news2option.event.RecommendationSavedEvent;
 import com.news2option.model.*;
 import com.news2option.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class InvestmentRecommendationService {
 
-    private final NewsAnalysisRepository newsAnalysisRepository;
+    private final RecommendationPromptBuilder promptBuilder;
     private final DailyInvestmentRecommendationRepository recommendationRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final NewsAnalysisRepository newsAnalysisRepository;
+    private final GeminiClient geminiClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PipelineMetrics metrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
+    @Value("${recommendation.refresh.min-new-analyses:20}")
+    private long minNewAnalyses;
 
-    @Value("${gemini.api.url}")
-    private String geminiApiUrl;
+    @Value("${recommendation.refresh.settle-seconds:60}")
+    private long settleSeconds;
 
     /**
-     * Generate daily investment recommendations at 5 PM every day
+     * Refresh today's recommendation on a schedule, hourly by default
      */
-    @Scheduled(cron = "0 0 17 * * ?")
-    public void generateDailyRecommendations() {
-        try {
-            log.info("Generating daily investment recommendations");
-            
-            LocalDate today = LocalDate.now();
-            
-            if (recommendationRepository.findByDate(today).isPresent()) {
-                log.info("Recommendations for today already exist");
-                return;
-            }
-            
-            LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
-            List<NewsAnalysis> recentAnalyses = newsAnalysisRepository.findByAnalyzedAtAfter(yesterday);
-            
-            if (recentAnalyses.isEmpty()) {
-                log.info("No recent news analyses found");
-                return;
-            }
-            
-            String recommendations = generateRecommendations(recentAnalyses);
-            
-            saveRecommendations(today, recommendations);
-        } catch (Exception e) {
-            log.error("Error generating daily recommendations: {}", e.getMessage(), e);
-        }
+    @Scheduled(cron = "${recommendation.refresh.cron:0 0 * * * ?}")
+    public void refreshOnSchedule() {
+        generateDailyRecommendations();
     }
 
     /**
-     * Get the latest investment recommendations
+     * Refresh today's recommendation early once enough new analyses have arrived
+     * since the latest snapshot
      */
-    public DailyInvestmentRecommendation getLatestRecommendations() {
-        return recommendationRepository.findTopByOrderByDateDesc()
-                .orElseThrow(() -> new RuntimeException("No recommendations found"));
+    @Scheduled(fixedDelayString = "${recommendation.refresh.check-interval-ms:60000}", initialDelay = 60000)
+    public void refreshOnNewAnalyses() {
+        DailyInvestmentRecommendation latest = recommendationRepository.findTopByDateOrderByVersionDesc(LocalDate.now()).orElse(null);
+        if (latest == null || latest.getAnalysesThrough() == null) {
+            return;
+        }
+        long pending = newsAnalysisRepository.countByAnalyzedAtAfter(latest.getAnalysesThrough());
+        if (pending >= minNewAnalyses) {
+            log.info("{} new analyses since recommendation version {}, refreshing", pending, latest.getVersion());
+            generateDailyRecommendations();
+        }
     }
 
     /**
-     * Generate investment recommendations using Gemini
+     * Generate or update today's investment recommendation. The first run of the day
+     * covers the last 24 hours; later runs send only the analyses made since the
+     * previous snapshot along with that snapshot, and store the answer as a new version.
+     * Returns whether a new version was stored.
      */
-    private String generateRecommendations(List<NewsAnalysis> analyses) throws Exception {
-        String prompt = buildRecommendationPrompt(analyses);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        
-        Map<String, Object> requestBody = new HashMap<>();
-        Map<String, Object> contents = new HashMap<>();
-        Map<String, Object> parts = new HashMap<>();
+    public synchronized boolean generateDailyRecommendations() {
+        try {
+            return metrics.stage("recommendation.generate").observeChecked(this::generateRecommendationVersion);
+        } catch (Exception e) {
+            log.error("Error generating daily recommendations: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private boolean generateRecommendationVersion() throws Exception {
+        LocalDate today = LocalDate.now();
+        // Leave analyses that are still being written for the next run
+        LocalDateTime until = LocalDateTime.now().minusSeconds(settleSeconds);
+        DailyInvestmentRecommendation previous = recommendationRepository.findTopByDateOrderByVersionDesc(today).orElse(null);
         
-        parts.put("text", prompt);
-        contents.put("parts", List.of(parts));
-        requestBody.put("contents", List.of(contents));
+        // Rows stored before snapshots were versioned count as version 1
+        int version = previous == null ? 1 : (previous.getVersion() == null ? 1 : previous.getVersion()) + 1;
+        String prompt;
+        if (previous == null || previous.getAnalysesThrough() == null) {
+            log.info("Generating daily investment recommendations");
+            prompt = metrics.stage("recommendation.prompt").observe(() -> promptBuilder.buildPrompt(until.minusDays(1), until));
+        } else {
+            log.info("Updating investment recommendations to version {}", version);
+            prompt = metrics.stage("recommendation.prompt").observe(() -> promptBuilder.buildUpdatePrompt(previous.getId(), previous.getAnalysesThrough(), until));
+        }
         
-        String url = geminiApiUrl + "?key=" + geminiApiKey;
+        if (prompt == null) {
+            log.info("No new news analyses found");
+            return false;
+        }
         
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-        String response = restTemplate.postForObject(url, request, String.class);
+        String recommendations = geminiClient.generateContent(prompt);
         
-        JsonNode responseJson = objectMapper.readTree(response);
-        return responseJson.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
+        try {
+            saveRecommendations(today, version, until, recommendations);
+            return true;
+        } catch (Exception e) {
+            metrics.parseFailure("recommendation");
+            geminiClient.evict(prompt);
+            throw e;
+        }
     }
 
     /**
-     * Build prompt for Gemini API
+     * Get the latest investment recommendations
      */
-    private String buildRecommendationPrompt(List<NewsAnalysis> analyses) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("Based on the following news analyses, provide investment recommendations:\n\n");
-        
-        for (NewsAnalysis analysis : analyses) {
-            prompt.append("News Title: ").append(analysis.getNews().getTitle()).append("\n");
-            prompt.append("Analysis: ").append(analysis.getAnalysisContent()).append("\n");
-            
-            prompt.append("Industry Impacts:\n");
-            for (IndustryImpact impact : analysis.getIndustryImpacts()) {
-                prompt.append("- ").append(impact.getIndustryName())
-                      .append(" (").append(impact.getImpactType())
-                      .append(", Score: ").append(impact.getImpactScore())
-                      .append(")\n");
-                
-                prompt.append("  Companies:\n");
-                for (CompanyImpact company : impact.getCompanyImpacts()) {
-                    prompt.append("  - ").append(company.getCompanyName())
-                          .append(" (").append(company.getStockSymbol())
-                          .append(", ").append(company.getImpactType())
-                          .append(", Score: ").append(company.getImpactScore())
-                          .append(")\n");
-                }
-            }
-            prompt.append("\n");
-        }
-        
-        prompt.append("Please provide a comprehensive investment recommendation in JSON format:\n");
-        prompt.append("{\n");
-        prompt.append("  \"summary\": \"Overall market summary and investment outlook\",\n");
-        prompt.append("  \"overallSentiment\": \"BULLISH/BEARISH/NEUTRAL\",\n");
-        prompt.append("  \"recommendedInvestments\": [\n");
-        prompt.append("    {\n");
-        prompt.append("      \"industryName\": \"Industry name\",\n");
-        prompt.append("      \"companyName\": \"Company name\",\n");
-        prompt.append("      \"stockSymbol\": \"Stock symbol\",\n");
-        prompt.append("      \"recommendationType\": \"BUY/SELL/HOLD\",\n");
-        prompt.append("      \"confidenceScore\": 1-10,\n");
-        prompt.append("      \"rationale\": \"Explanation for this recommendation\"\n");
-        prompt.append("    }\n");
-        prompt.append("  ]\n");
-        prompt.append("}\n");
-        
-        return prompt.toString();
+    public DailyInvestmentRecommendation getLatestRecommendations() {
+        return recommendationRepository.findTopByOrderByDateDescVersionDesc()
+                .orElseThrow(() -> new RuntimeException("No recommendations found"));
     }
 
     /**
      * Save recommendations to database
      */
-    private void saveRecommendations(LocalDate date, String recommendationsJson) throws Exception {
+    private void saveRecommendations(LocalDate date, int version, LocalDateTime analysesThrough, String recommendationsJson) throws Exception {
         JsonNode root = objectMapper.readTree(recommendationsJson);
         
         DailyInvestmentRecommendation recommendation = DailyInvestmentRecommendation.builder()
                 .date(date)
+                .version(version)
+                .generatedAt(LocalDateTime.now())
+                .analysesThrough(analysesThrough)
                 .summary(root.path("summary").asText())
                 .overallSentiment(DailyInvestmentRecommendation.InvestmentSentiment.valueOf(root.path("overallSentiment").asText()))
                 .recommendedInvestments(new ArrayList<>())
                 .build();
         
-        DailyInvestmentRecommendation savedRecommendation = recommendationRepository.save(recommendation);
-        
         JsonNode investmentsNode = root.path("recommendedInvestments");
         for (JsonNode investmentNode : investmentsNode) {
             RecommendedInvestment investment = RecommendedInvestment.builder()
@@ -176,12 +142,15 @@ public class InvestmentRecommendationService {
                     .recommendationType(RecommendedInvestment.RecommendationType.valueOf(investmentNode.path("recommendationType").asText()))
                     .confidenceScore(investmentNode.path("confidenceScore").asInt())
                     .rationale(investmentNode.path("rationale").asText())
-                    .recommendation(savedRecommendation)
+                    .recommendation(recommendation)
                     .build();
             
-            savedRecommendation.getRecommendedInvestments().add(investment);
+            recommendation.getRecommendedInvestments().add(investment);
         }
         
-        recommendationRepository.save(savedRecommendation);
+        eventPublisher.publishEvent(new RecommendationSavedEvent(recommendationRepository.save(recommendation)));
+        metrics.rowsPersisted("daily_investment_recommendation", 1);
+        metrics.rowsPersisted("recommended_investment", recommendation.getRecommendedInvestments().size());
+        log.info("Stored recommendation version {} for {}", version, date);
     }
 }
@@ -0,0 +1,281 @@
+package com.news2option.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.news2option.dto.AnalysisSummary;
+import com.news2option.dto.RecommendationSummary;
+import com.news2option.event.AnalysisSavedEvent;
+import com.news2option.event.NewsSavedEvent;
+import com.news2option.event.RecommendationSavedEvent;
+import com.news2option.model.DailyInvestmentRecommendation;
+import com.news2option.model.News;
+import com.news2option.model.NewsAnalysis;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes newly stored news, analyses and recommendation snapshots to connected
+ * clients as server-sent events. Each event is serialised once and kept in a ring
+ * buffer so a reconnecting client can resume after its Last-Event-ID. Every client
+ * has a bounded queue drained on a small sender pool; a client that falls further
+ * behind than its queue is disconnected and catches up from the buffer when its
+ * EventSource reconnects.
+ */
+@Component
+@Slf4j
+public class LiveEventFeed {
+
+    /**
+     * Sent instead of a replay when the events a client missed are no longer buffered
+     */
+    public static final String RESET_EVENT = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final int clientQueueSize;
+    private final long emitterTimeoutMillis;
+    private final ExecutorService senders;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final FeedEvent[] buffer;
+    private int bufferHead;
+    private int bufferCount;
+    // Seeded from the clock so ids keep increasing across restarts
+    private long nextId = System.currentTimeMillis();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+
+    public LiveEventFeed(ObjectMapper objectMapper,
+                         @Value("${feed.buffer-size:1024}") int bufferSize,
+                         @Value("${feed.client-queue-size:256}") int clientQueueSize,
+                         @Value("${feed.sender-threads:2}") int senderThreads,
+                         @Value("${feed.emitter-timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.buffer = new FeedEvent[bufferSize];
+        this.clientQueueSize = clientQueueSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.senders = Executors.newFixedThreadPool(senderThreads, senderThreadFactory());
+    }
+
+    /**
+     * Open a stream for a client, first replaying anything it missed after the given
+     * event id
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        
+        // Replay and registration happen under the buffer lock so no event falls between them
+        synchronized (buffer) {
+            List<FeedEvent> missed = eventsAfter(lastEventId);
+            if (missed == null) {
+                subscriber.offer(new FeedEvent(nextId - 1, RESET_EVENT, "{}"));
+            } else {
+                missed.forEach(subscriber::offer);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onNewsSaved(NewsSavedEvent event) {
+        publish("news", event.news());
+    }
+
+    @EventListener
+    public void onAnalysisSaved(AnalysisSavedEvent event) {
+        NewsAnalysis analysis = event.analysis();
+        try {
+            News news = analysis.getNews();
+            publish("analysis", new AnalysisSummary(analysis.getId(), news.getId(), news.getTitle(), news.getSource(), analysis.getAnalyzedAt()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish analysis {} to the live feed: {}", analysis.getId(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onRecommendationSaved(RecommendationSavedEvent event) {
+        DailyInvestmentRecommendation recommendation = event.recommendation();
+        publish("recommendation", new RecommendationSummary(recommendation.getId(), recommendation.getDate(),
+                recommendation.getVersion(), recommendation.getGeneratedAt(), recommendation.getOverallSentiment()));
+    }
+
+    /**
+     * Keep idle connections open through proxies and notice clients that went away
+     */
+    @Scheduled(fixedDelayString = "${feed.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty()) {
+                subscriber.offer(FeedEvent.HEARTBEAT);
+            }
+        }
+    }
+
+    public FeedStats getStats() {
+        synchronized (buffer) {
+            return new FeedStats(subscribers.size(), bufferCount, published.get(), overflows.get());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void publish(String type, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialise {} event for the live feed: {}", type, e.getMessage());
+            return;
+        }
+        
+        synchronized (buffer) {
+            FeedEvent event = new FeedEvent(nextId++, type, json);
+            buffer[(bufferHead + bufferCount) % buffer.length] = event;
+            if (bufferCount < buffer.length) {
+                bufferCount++;
+            } else {
+                bufferHead = (bufferHead + 1) % buffer.length;
+            }
+            published.incrementAndGet();
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Buffered events after the given id; empty for a new client and null when the
+     * client has missed events that are no longer buffered
+     */
+    private List<FeedEvent> eventsAfter(String lastEventId) {
+        List<FeedEvent> events = new ArrayList<>();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return events;
+        }
+        long lastId;
+        try {
+            lastId = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        
+        long oldestId = bufferCount == 0 ? nextId : buffer[bufferHead].id();
+        if (lastId < oldestId - 1 || lastId >= nextId) {
+            return null;
+        }
+        for (int i = 0; i < bufferCount; i++) {
+            FeedEvent event = buffer[(bufferHead + i) % buffer.length];
+            if (event.id() > lastId) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "feed-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<FeedEvent> queue = new ArrayBlockingQueue<>(clientQueueSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+        
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        void offer(FeedEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Too far behind; drop the client and let it resume from the buffer
+                overflows.incrementAndGet();
+                close();
+                senders.execute(emitter::complete);
+                return;
+            }
+            scheduleDrain();
+        }
+        
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+        
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                FeedEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    if (event == FeedEvent.HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.id()))
+                                .name(event.type())
+                                .data(event.json(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+                if (!closed && !queue.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+    }
+
+    private record FeedEvent(long id, String type, String json) {
+        static final FeedEvent HEARTBEAT = new FeedEvent(-1, null, null);
+    }
+
+    public record FeedStats(int subscribers, int bufferedEvents, long publishedEvents, long overflowedClients) {
+    }
+}
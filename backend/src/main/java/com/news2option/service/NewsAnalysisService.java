@@ -1,17 +1,16 @@
 package com.news2option.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.news2option.event.AnalysisSavedEvent;
 import com.news2option.model.*;
 import com.news2option.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -24,34 +23,165 @@ import java.util.Map;
 @Slf4j
 public class NewsAnalysisService {
 
+    private static final String ANALYSIS_INSTRUCTIONS =
+            "1. Which industries are affected by this news\n" +
+            "2. For each industry, determine if the impact is positive, negative, or neutral\n" +
+            "3. Assign an impact score from 1-10 for each industry (10 being highest impact)\n" +
+            "4. List specific companies in each industry that would be affected\n" +
+            "5. For each company, determine if the impact is positive, negative, or neutral\n" +
+            "6. Assign an impact score from 1-10 for each company\n\n";
+
+    private static final String INDUSTRIES_SCHEMA =
+            "  \"industries\": [\n" +
+            "    {\n" +
+            "      \"name\": \"Industry name\",\n" +
+            "      \"impactType\": \"POSITIVE/NEGATIVE/NEUTRAL\",\n" +
+            "      \"impactScore\": 1-10,\n" +
+            "      \"companies\": [\n" +
+            "        {\n" +
+            "          \"name\": \"Company name\",\n" +
+            "          \"stockSymbol\": \"Stock symbol if available\",\n" +
+            "          \"impactType\": \"POSITIVE/NEGATIVE/NEUTRAL\",\n" +
+            "          \"impactScore\": 1-10\n" +
+            "        }\n" +
+            "      ]\n" +
+            "    }\n" +
+            "  ]\n";
+
+    /**
+     * Rough size of the fixed instructions in a batch prompt, in tokens
+     */
+    public static final int BATCH_PROMPT_OVERHEAD_TOKENS = 350;
+
     private final NewsAnalysisRepository newsAnalysisRepository;
-    private final IndustryImpactRepository industryImpactRepository;
-    private final CompanyImpactRepository companyImpactRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final GeminiClient geminiClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PipelineMetrics metrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
-
-    @Value("${gemini.api.url}")
-    private String geminiApiUrl;
+    @Value("${gemini.streaming.enabled:false}")
+    private boolean streamingEnabled;
 
     /**
      * Analyze a news article using Gemini API
      */
-    public NewsAnalysis analyzeNews(News news) {
+    public NewsAnalysis analyzeNews(News news) throws Exception {
+        log.info("Analyzing news: {}", news.getTitle());
+        
+        String prompt = buildAnalysisPrompt(news);
+        
+        if (streamingEnabled) {
+            return analyzeNewsStreaming(news, prompt);
+        }
+        
+        String analysisJson = geminiClient.generateContent(prompt);
+        
+        NewsAnalysis analysis;
         try {
-            log.info("Analyzing news: {}", news.getTitle());
-            
-            String prompt = buildAnalysisPrompt(news);
-            
-            String analysisJson = callGeminiApi(prompt);
-            
-            return processAnalysisResponse(news, analysisJson);
+            analysis = processAnalysisResponse(news, analysisJson);
         } catch (Exception e) {
-            log.error("Error analyzing news: {}", e.getMessage(), e);
-            return null;
+            geminiClient.evict(prompt);
+            throw e;
+        }
+        eventPublisher.publishEvent(new AnalysisSavedEvent(analysis));
+        return analysis;
+    }
+
+    /**
+     * Analyze a news article over the streaming endpoint. Each industry impact is
+     * mapped as soon as its JSON object is complete, so a malformed answer fails
+     * while it is still streaming, but nothing is stored until the document is
+     * complete; the whole graph is then saved at once, as for a non-streamed answer.
+     */
+    private NewsAnalysis analyzeNewsStreaming(News news, String prompt) throws Exception {
+        NewsAnalysis newsAnalysis = NewsAnalysis.builder()
+                .news(news)
+                .industryImpacts(new ArrayList<>())
+                .build();
+        
+        StreamingAnalysisParser parser = new StreamingAnalysisParser(objectMapper,
+                newsAnalysis::setAnalysisContent,
+                industryNode -> newsAnalysis.getIndustryImpacts().add(buildIndustryImpact(newsAnalysis, industryNode)));
+        
+        try {
+            geminiClient.streamContent(prompt, parser::feed);
+            if (!parser.isComplete()) {
+                throw new IllegalStateException("Streamed analysis ended before the JSON document was complete");
+            }
+        } catch (JsonProcessingException | IllegalArgumentException | IllegalStateException e) {
+            metrics.parseFailure("analysis");
+            geminiClient.evict(prompt);
+            throw e;
+        } catch (Exception e) {
+            geminiClient.evict(prompt);
+            throw e;
+        }
+        
+        newsAnalysis.setAnalyzedAt(LocalDateTime.now());
+        NewsAnalysis analysis = persist(newsAnalysis);
+        eventPublisher.publishEvent(new AnalysisSavedEvent(analysis));
+        return analysis;
+    }
+
+    /**
+     * Analyze several news articles with a single Gemini call. Returns the analyses
+     * that could be read from the response, keyed by news id; articles missing from
+     * the result should be analyzed individually. Transport errors are propagated.
+     */
+    public Map<Long, NewsAnalysis> analyzeNewsBatch(List<News> newsList) throws Exception {
+        log.info("Analyzing batch of {} news articles", newsList.size());
+        
+        String prompt = buildBatchAnalysisPrompt(newsList);
+        
+        String analysisJson = geminiClient.generateContent(prompt);
+        
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(stripCodeFence(analysisJson));
+        } catch (Exception e) {
+            metrics.parseFailure("batch");
+            log.warn("Batch analysis response could not be parsed: {}", e.getMessage());
+            geminiClient.evict(prompt);
+            return Map.of();
+        }
+        
+        JsonNode items = root.isArray() ? root : root.path("articles");
+        Map<Long, News> newsById = new HashMap<>();
+        newsList.forEach(news -> newsById.put(news.getId(), news));
+        
+        Map<Long, NewsAnalysis> analyses = new HashMap<>();
+        for (JsonNode item : items) {
+            News news = newsById.get(item.path("newsId").asLong());
+            if (news == null || analyses.containsKey(news.getId())) {
+                continue;
+            }
+            NewsAnalysis analysis;
+            try {
+                analysis = persist(buildAnalysis(news, item));
+            } catch (Exception e) {
+                metrics.parseFailure("batch-item");
+                log.warn("Skipping unusable batch result for news {}: {}", news.getId(), e.getMessage());
+                continue;
+            }
+            analyses.put(news.getId(), analysis);
+            eventPublisher.publishEvent(new AnalysisSavedEvent(analysis));
+        }
+        
+        if (analyses.size() < newsList.size()) {
+            log.warn("Batch response covered {} of {} articles", analyses.size(), newsList.size());
+            if (analyses.isEmpty()) {
+                geminiClient.evict(prompt);
+            }
         }
+        return analyses;
+    }
+
+    /**
+     * Approximate number of prompt tokens an article contributes to a batch
+     */
+    public int estimatePromptTokens(News news) {
+        int characters = length(news.getTitle()) + length(news.getContent());
+        return characters / 4 + 20;
     }
 
     /**
@@ -62,63 +192,74 @@ public class NewsAnalysisService {
                 "Title: " + news.getTitle() + "\n\n" +
                 "Content: " + news.getContent() + "\n\n" +
                 "Please identify:\n" +
-                "1. Which industries are affected by this news\n" +
-                "2. For each industry, determine if the impact is positive, negative, or neutral\n" +
-                "3. Assign an impact score from 1-10 for each industry (10 being highest impact)\n" +
-                "4. List specific companies in each industry that would be affected\n" +
-                "5. For each company, determine if the impact is positive, negative, or neutral\n" +
-                "6. Assign an impact score from 1-10 for each company\n\n" +
+                ANALYSIS_INSTRUCTIONS +
                 "Respond with a JSON object in the following format:\n" +
                 "{\n" +
                 "  \"analysis\": \"Your overall analysis of the news article\",\n" +
-                "  \"industries\": [\n" +
-                "    {\n" +
-                "      \"name\": \"Industry name\",\n" +
-                "      \"impactType\": \"POSITIVE/NEGATIVE/NEUTRAL\",\n" +
-                "      \"impactScore\": 1-10,\n" +
-                "      \"companies\": [\n" +
-                "        {\n" +
-                "          \"name\": \"Company name\",\n" +
-                "          \"stockSymbol\": \"Stock symbol if available\",\n" +
-                "          \"impactType\": \"POSITIVE/NEGATIVE/NEUTRAL\",\n" +
-                "          \"impactScore\": 1-10\n" +
-                "        }\n" +
-                "      ]\n" +
-                "    }\n" +
-                "  ]\n" +
+                INDUSTRIES_SCHEMA +
                 "}";
     }
 
     /**
-     * Call Gemini API
+     * Build a prompt covering several articles, each tagged with its news id
      */
-    private String callGeminiApi(String prompt) throws Exception {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        
-        Map<String, Object> requestBody = new HashMap<>();
-        Map<String, Object> contents = new HashMap<>();
-        Map<String, Object> parts = new HashMap<>();
+    private String buildBatchAnalysisPrompt(List<News> newsList) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Analyze each of the following financial news articles independently and provide a structured JSON response:\n\n");
         
-        parts.put("text", prompt);
-        contents.put("parts", List.of(parts));
-        requestBody.put("contents", List.of(contents));
-        
-        String url = geminiApiUrl + "?key=" + geminiApiKey;
+        for (News news : newsList) {
+            prompt.append("Article ID: ").append(news.getId()).append("\n");
+            prompt.append("Title: ").append(news.getTitle()).append("\n");
+            prompt.append("Content: ").append(news.getContent()).append("\n\n");
+        }
         
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-        String response = restTemplate.postForObject(url, request, String.class);
+        prompt.append("For each article, please identify:\n");
+        prompt.append(ANALYSIS_INSTRUCTIONS);
+        prompt.append("Respond with a JSON array containing exactly one object per article, in the following format:\n");
+        prompt.append("[\n");
+        prompt.append("{\n");
+        prompt.append("  \"newsId\": Article ID,\n");
+        prompt.append("  \"analysis\": \"Your overall analysis of the news article\",\n");
+        prompt.append(INDUSTRIES_SCHEMA);
+        prompt.append("}\n");
+        prompt.append("]");
         
-        JsonNode responseJson = objectMapper.readTree(response);
-        return responseJson.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText();
+        return prompt.toString();
     }
 
     /**
-     * Process the analysis response from Gemini
+     * Process the analysis response from Gemini. The whole impact graph is built in
+     * memory and persisted through cascades in a single batched save.
      */
     private NewsAnalysis processAnalysisResponse(News news, String analysisJson) throws Exception {
-        JsonNode root = objectMapper.readTree(analysisJson);
+        NewsAnalysis analysis;
+        try {
+            analysis = mapAnalysisResponse(news, analysisJson);
+        } catch (Exception e) {
+            metrics.parseFailure("analysis");
+            throw e;
+        }
+        return persist(analysis);
+    }
+
+    private NewsAnalysis persist(NewsAnalysis analysis) {
+        NewsAnalysis saved = metrics.stage("analysis.persist")
+                .highCardinalityKeyValue(PipelineMetrics.NEWS_ID, String.valueOf(analysis.getNews().getId()))
+                .observe(() -> newsAnalysisRepository.save(analysis));
+        metrics.analysisPersisted(saved);
+        return saved;
+    }
+
+    /**
+     * Map an analysis response onto an unsaved analysis graph
+     */
+    NewsAnalysis mapAnalysisResponse(News news, String analysisJson) throws Exception {
+        JsonNode root = objectMapper.readTree(stripCodeFence(analysisJson));
         
+        return buildAnalysis(news, root);
+    }
+
+    private NewsAnalysis buildAnalysis(News news, JsonNode root) {
         NewsAnalysis newsAnalysis = NewsAnalysis.builder()
                 .news(news)
                 .analysisContent(root.path("analysis").asText())
@@ -126,37 +267,53 @@ public class NewsAnalysisService {
                 .industryImpacts(new ArrayList<>())
                 .build();
         
-        NewsAnalysis savedAnalysis = newsAnalysisRepository.save(newsAnalysis);
-        
         JsonNode industriesNode = root.path("industries");
         for (JsonNode industryNode : industriesNode) {
-            IndustryImpact industryImpact = IndustryImpact.builder()
-                    .industryName(industryNode.path("name").asText())
-                    .impactType(IndustryImpact.ImpactType.valueOf(industryNode.path("impactType").asText()))
-                    .impactScore(industryNode.path("impactScore").asInt())
-                    .newsAnalysis(savedAnalysis)
-                    .companyImpacts(new ArrayList<>())
+            newsAnalysis.getIndustryImpacts().add(buildIndustryImpact(newsAnalysis, industryNode));
+        }
+        
+        return newsAnalysis;
+    }
+
+    private IndustryImpact buildIndustryImpact(NewsAnalysis newsAnalysis, JsonNode industryNode) {
+        IndustryImpact industryImpact = IndustryImpact.builder()
+                .industryName(industryNode.path("name").asText())
+                .impactType(IndustryImpact.ImpactType.valueOf(industryNode.path("impactType").asText()))
+                .impactScore(industryNode.path("impactScore").asInt())
+                .newsAnalysis(newsAnalysis)
+                .companyImpacts(new ArrayList<>())
+                .build();
+        
+        JsonNode companiesNode = industryNode.path("companies");
+        for (JsonNode companyNode : companiesNode) {
+            CompanyImpact companyImpact = CompanyImpact.builder()
+                    .companyName(companyNode.path("name").asText())
+                    .stockSymbol(companyNode.path("stockSymbol").asText())
+                    .impactType(IndustryImpact.ImpactType.valueOf(companyNode.path("impactType").asText()))
+                    .impactScore(companyNode.path("impactScore").asInt())
+                    .industryImpact(industryImpact)
                     .build();
             
-            IndustryImpact savedIndustry = industryImpactRepository.save(industryImpact);
-            
-            JsonNode companiesNode = industryNode.path("companies");
-            for (JsonNode companyNode : companiesNode) {
-                CompanyImpact companyImpact = CompanyImpact.builder()
-                        .companyName(companyNode.path("name").asText())
-                        .stockSymbol(companyNode.path("stockSymbol").asText())
-                        .impactType(IndustryImpact.ImpactType.valueOf(companyNode.path("impactType").asText()))
-                        .impactScore(companyNode.path("impactScore").asInt())
-                        .industryImpact(savedIndustry)
-                        .build();
-                
-                companyImpactRepository.save(companyImpact);
-                savedIndustry.getCompanyImpacts().add(companyImpact);
-            }
-            
-            savedAnalysis.getIndustryImpacts().add(savedIndustry);
+            industryImpact.getCompanyImpacts().add(companyImpact);
         }
         
-        return newsAnalysisRepository.save(savedAnalysis);
+        return industryImpact;
+    }
+
+    /**
+     * Models often wrap JSON answers in a markdown code fence; drop it if present
+     */
+    private static String stripCodeFence(String text) {
+        String trimmed = text.trim();
+        if (!trimmed.startsWith("```")) {
+            return trimmed;
+        }
+        int start = trimmed.indexOf('\n');
+        int end = trimmed.lastIndexOf("```");
+        return start >= 0 && end > start ? trimmed.substring(start + 1, end).trim() : trimmed;
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
     }
 }
@@ -0,0 +1,292 @@
+package com.news2option.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.news2option.dto.ArchivePartition;
+import com.news2option.dto.ArchivedNews;
+import com.news2option.model.CompanyImpact;
+import com.news2option.model.IndustryImpact;
+import com.news2option.model.News;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Append-only archive of articles moved out of the primary store. Articles are
+ * partitioned by publication day or month into segment files of gzip-compressed
+ * JSON lines, one article with its analysis and impacts per line. Every append
+ * adds a new gzip member to the segment and is synced before it returns, so rows
+ * can be deleted from the database once it has. Queries scan only the segments
+ * that overlap the requested range.
+ */
+@Component
+@Slf4j
+public class NewsArchive {
+
+    private static final String PREFIX = "news-";
+    private static final String SUFFIX = ".ndjson.gz";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Partitioning partitioning;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Article counts per segment, valid while the segment still has the size they were counted at
+    private final Map<String, SegmentCount> counts = new ConcurrentHashMap<>();
+
+    public NewsArchive(ObjectMapper objectMapper,
+                       @Value("${archive.dir:./data/archive}") String directory,
+                       @Value("${archive.partition:MONTH}") Partitioning partitioning) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.partitioning = partitioning;
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create archive directory " + directory, e);
+        }
+    }
+
+    /**
+     * Append articles to the segments for their publication dates
+     */
+    public void append(List<ArchivedNews> articles) throws IOException {
+        Map<String, List<ArchivedNews>> bySegment = new TreeMap<>();
+        for (ArchivedNews article : articles) {
+            bySegment.computeIfAbsent(segmentName(dateOf(article.news())), name -> new ArrayList<>()).add(article);
+        }
+        
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, List<ArchivedNews>> segment : bySegment.entrySet()) {
+                write(directory.resolve(segment.getKey()), segment.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find articles published from {@code from} up to, but excluding, {@code to},
+     * newest first. Ticker and source filters are optional and ignore case.
+     */
+    public List<ArchivedNews> find(LocalDate from, LocalDate to, String ticker, String source, int limit) throws IOException {
+        List<ArchivePartition> segments = new ArrayList<>(listPartitions());
+        segments.removeIf(segment -> !segment.from().isBefore(to) || !segment.until().isAfter(from));
+        segments.sort(Comparator.comparing(ArchivePartition::until).reversed());
+        
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.atStartOfDay();
+        Comparator<ArchivedNews> newestFirst = Comparator.comparing((ArchivedNews article) -> dateOf(article.news()))
+                .thenComparing(article -> article.news().getId())
+                .reversed();
+        List<ArchivedNews> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (ArchivePartition segment : segments) {
+                // Segments cannot overlap unless the partitioning changed, but then an older-ending one may still hold newer articles
+                if (matches.size() >= limit && !segment.until().atStartOfDay().isAfter(dateOf(matches.get(limit - 1).news()))) {
+                    break;
+                }
+                for (ArchivedNews article : readSegment(directory.resolve(segment.name())).values()) {
+                    LocalDateTime date = dateOf(article.news());
+                    if (!date.isBefore(start) && date.isBefore(end) && matchesSource(article, source) && mentionsTicker(article, ticker)) {
+                        matches.add(article);
+                    }
+                }
+                matches.sort(newestFirst);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Describe every segment, oldest first
+     */
+    public List<ArchivePartition> listPartitions() throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(directory)) {
+            files = paths.filter(path -> isSegment(path.getFileName().toString())).toList();
+        }
+        
+        List<ArchivePartition> partitions = new ArrayList<>(files.size());
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            try {
+                partitions.add(describe(file, name));
+            } catch (DateTimeParseException e) {
+                log.warn("Ignoring archive file with an unexpected name: {}", name);
+            }
+        }
+        partitions.sort(Comparator.comparing(ArchivePartition::from));
+        return partitions;
+    }
+
+    private ArchivePartition describe(Path file, String name) throws IOException {
+        String period = name.substring(PREFIX.length(), name.length() - SUFFIX.length());
+        LocalDate from;
+        LocalDate until;
+        if (period.length() == 7) {
+            YearMonth month = YearMonth.parse(period);
+            from = month.atDay(1);
+            until = month.plusMonths(1).atDay(1);
+        } else {
+            from = LocalDate.parse(period);
+            until = from.plusDays(1);
+        }
+        
+        long bytes = Files.size(file);
+        SegmentCount count = counts.get(name);
+        if (count == null || count.bytes() != bytes) {
+            lock.readLock().lock();
+            try {
+                bytes = Files.size(file);
+                count = new SegmentCount(bytes, readSegment(file).size());
+            } finally {
+                lock.readLock().unlock();
+            }
+            counts.put(name, count);
+        }
+        return new ArchivePartition(name, from, until, count.articles(), bytes);
+    }
+
+    /**
+     * Compress the articles into one gzip member, append it and sync. A failed
+     * write is cut off again so the segment stays readable.
+     */
+    private void write(Path path, List<ArchivedNews> articles) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            for (ArchivedNews article : articles) {
+                gzip.write(objectMapper.writeValueAsBytes(article));
+                gzip.write('\n');
+            }
+        }
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long start = channel.size();
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+                long position = start;
+                while (bytes.hasRemaining()) {
+                    position += channel.write(bytes, position);
+                }
+                channel.force(true);
+            } catch (IOException e) {
+                channel.truncate(start);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Read a segment keyed by news id; an article archived twice keeps its last copy.
+     * A damaged tail is skipped with a warning.
+     */
+    private Map<Long, ArchivedNews> readSegment(Path path) throws IOException {
+        Map<Long, ArchivedNews> articles = new LinkedHashMap<>();
+        forEachLine(path, line -> {
+            try {
+                ArchivedNews article = objectMapper.readValue(line, ArchivedNews.class);
+                articles.put(article.news().getId(), article);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return articles;
+    }
+
+    private void forEachLine(Path path, Consumer<String> consumer) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path), 65536), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    consumer.accept(line);
+                }
+            }
+        } catch (EOFException | ZipException e) {
+            log.warn("Archive segment {} ends in a damaged block: {}", path, e.getMessage());
+        }
+    }
+
+    private String segmentName(LocalDateTime date) {
+        String period = partitioning == Partitioning.DAY
+                ? date.toLocalDate().toString()
+                : YearMonth.from(date).toString();
+        return PREFIX + period + SUFFIX;
+    }
+
+    private static boolean isSegment(String name) {
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    /**
+     * Partitioning date of an article: when it was published, or collected if the source gave no date
+     */
+    static LocalDateTime dateOf(News news) {
+        return news.getPublishedAt() != null ? news.getPublishedAt() : news.getCollectedAt();
+    }
+
+    private static boolean matchesSource(ArchivedNews article, String source) {
+        return source == null || source.equalsIgnoreCase(article.news().getSource());
+    }
+
+    private static boolean mentionsTicker(ArchivedNews article, String ticker) {
+        if (ticker == null) {
+            return true;
+        }
+        if (article.industryImpacts() == null) {
+            return false;
+        }
+        for (IndustryImpact industry : article.industryImpacts()) {
+            if (industry.getCompanyImpacts() == null) {
+                continue;
+            }
+            for (CompanyImpact company : industry.getCompanyImpacts()) {
+                if (ticker.equalsIgnoreCase(company.getStockSymbol())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public enum Partitioning {
+        DAY, MONTH
+    }
+
+    private record SegmentCount(long bytes, int articles) {
+    }
+}
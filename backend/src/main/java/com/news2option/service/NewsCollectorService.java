@@ -1,36 +1,47 @@
 package com.news2option.service;
 
+import com.news2option.event.NewsSavedEvent;
+import com.news2option.model.FetchState;
 import com.news2option.model.News;
-import com.news2option.repository.NewsRepository;
+import io.micrometer.observation.Observation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NewsCollectorService {
 
-    private final NewsRepository newsRepository;
-    private final NewsAnalysisService newsAnalysisService;
+    private final AnalysisQueueService analysisQueueService;
+    private final PageFetcher pageFetcher;
+    private final UrlDeduplicator urlDeduplicator;
+    private final StoryClusterer storyClusterer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PipelineMetrics metrics;
+    private final FetchStateStore fetchStateStore;
 
-    private final List<String> financialNewsSources = List.of(
-            "https://finance.yahoo.com",
-            "https://www.cnbc.com/finance/",
-            "https://www.bloomberg.com/markets",
-            "https://www.reuters.com/business/",
-            "https://www.ft.com"
+    private static final int MAX_ARTICLES_PER_SOURCE = 5;
+
+    private final List<NewsSource> financialNewsSources = List.of(
+            new NewsSource("https://finance.yahoo.com", "https://finance.yahoo.com/news/rssindex"),
+            new NewsSource("https://www.cnbc.com/finance/", "https://www.cnbc.com/id/10000664/device/rss/rss.html"),
+            new NewsSource("https://www.bloomberg.com/markets", "https://www.bloomberg.com/feeds/sitemap_news.xml"),
+            new NewsSource("https://www.reuters.com/business/", "https://www.reuters.com/arc/outboundfeeds/news-sitemap/?outputType=xml"),
+            new NewsSource("https://www.ft.com", "https://www.ft.com/rss/home")
     );
 
     /**
@@ -42,39 +53,159 @@ public class NewsCollectorService {
             List<News> collectedNews = collectNews();
             log.info("Collected {} news articles", collectedNews.size());
             
-            collectedNews.forEach(newsAnalysisService::analyzeNews);
+            analysisQueueService.enqueue(collectedNews);
         } catch (Exception e) {
             log.error("Error collecting news: {}", e.getMessage(), e);
         }
     }
 
     /**
-     * Collect news from various financial sources
+     * Collect news from various financial sources, fetching all sources concurrently
      */
     public List<News> collectNews() {
-        List<News> collectedNews = new ArrayList<>();
-        
-        for (String source : financialNewsSources) {
-            try {
-                List<News> newsFromSource = scrapeNewsFromSource(source);
-                collectedNews.addAll(newsFromSource);
-            } catch (Exception e) {
-                log.error("Error collecting news from {}: {}", source, e.getMessage(), e);
-            }
+        return metrics.stage("news.collect").observe(() -> {
+            List<CompletableFuture<List<News>>> sourceFutures = financialNewsSources.stream()
+                    .map(this::collectFromSource)
+                    .toList();
+            
+            List<News> collectedNews = new ArrayList<>();
+            sourceFutures.forEach(future -> collectedNews.addAll(future.join()));
+            
+            return collectedNews;
+        });
+    }
+
+    /**
+     * Discover a source's new article links and fetch them, observed as one stage of the collector run
+     */
+    private CompletableFuture<List<News>> collectFromSource(NewsSource source) {
+        Observation observation = metrics.stage("news.source")
+                .lowCardinalityKeyValue("source", sourceName(source.url()))
+                .start();
+        return observation.scoped(() -> discoverLinks(source, observation))
+                .thenCompose(discovery -> scrapeNewsFromSource(source.url(), discovery, observation))
+                .whenComplete((news, e) -> {
+                    if (e != null) {
+                        observation.error(e);
+                    }
+                    observation.stop();
+                })
+                .exceptionally(e -> {
+                    log.error("Error collecting news from {}: {}", source.url(), rootMessage(e), e);
+                    return List.of();
+                });
+    }
+
+    /**
+     * Read article links from the source's feed or sitemap when it has one, which is
+     * smaller than the listing page and lists only articles. An unchanged feed yields
+     * no links. The listing is read instead if the feed fails or lists nothing usable.
+     */
+    private CompletableFuture<Discovery> discoverLinks(NewsSource source, Observation sourceObservation) {
+        FetchState listing = fetchStateStore.load(source.url());
+        String feedUrl = source.feedUrl() != null ? source.feedUrl() : listing.getFeedUrl();
+        if (feedUrl == null) {
+            return readListing(source, listing);
         }
         
-        return collectedNews;
+        FetchState feed = fetchStateStore.load(feedUrl);
+        return pageFetcher.fetchIfChangedAsync(feedUrl, FetchStateStore.validatorsOf(feed), true)
+                .thenApply(page -> new Discovery(page.changed() ? feedLinks(page.document()) : List.of(),
+                        feed, page.validators(), null, page.changed()))
+                .exceptionally(e -> {
+                    log.warn("Feed {} unavailable, reading the listing instead: {}", feedUrl, rootMessage(e));
+                    return null;
+                })
+                .thenCompose(discovery -> {
+                    if (discovery != null && !(discovery.changed() && discovery.links().isEmpty())) {
+                        return CompletableFuture.completedFuture(discovery);
+                    }
+                    // The listing fetch is observed under the source; this runs on a fetch thread
+                    return sourceObservation.scoped(() -> readListing(source, listing));
+                });
+    }
+
+    /**
+     * Read article links from the source listing if it changed since the last run,
+     * remembering the feed it advertises for the next run
+     */
+    private CompletableFuture<Discovery> readListing(NewsSource source, FetchState listing) {
+        return pageFetcher.fetchIfChangedAsync(source.url(), FetchStateStore.validatorsOf(listing), false)
+                .thenApply(page -> {
+                    if (!page.changed()) {
+                        return new Discovery(List.of(), listing, page.validators(), null, false);
+                    }
+                    String feedUrl = source.feedUrl() == null ? advertisedFeed(page.document()) : null;
+                    return new Discovery(listingLinks(source.url(), page.document()), listing, page.validators(), feedUrl, true);
+                });
     }
 
     /**
-     * Scrape news from a specific source
+     * Scrape news from the discovered links, fetching their article pages in parallel
      */
-    private List<News> scrapeNewsFromSource(String sourceUrl) throws IOException {
-        List<News> newsList = new ArrayList<>();
-        Document doc = Jsoup.connect(sourceUrl).get();
+    private CompletableFuture<List<News>> scrapeNewsFromSource(String sourceUrl, Discovery discovery, Observation sourceObservation) {
+        String sourceName = sourceName(sourceUrl);
         
-        String sourceName = sourceUrl.replaceAll("https?://(?:www\\.)?([^/]+).*", "$1");
+        List<ArticleLink> candidates = new ArrayList<>();
+        int discovered = 0;
+        int deduplicated = 0;
+        boolean truncated = false;
+        for (PageLink link : discovery.links()) {
+            if (candidates.size() >= MAX_ARTICLES_PER_SOURCE) {
+                truncated = true;
+                break;
+            }
+            
+            discovered++;
+            String urlHash = UrlDeduplicator.hash(link.url());
+            if (!urlDeduplicator.tryClaim(urlHash)) {
+                deduplicated++;
+                continue;
+            }
+            
+            candidates.add(new ArticleLink(link.title(), link.url(), urlHash));
+        }
+        metrics.articlesDiscovered(sourceName, discovered);
+        metrics.articlesDeduplicated(sourceName, deduplicated);
         
+        // Article fetches are observed under the source; this runs on a fetch thread
+        List<CompletableFuture<News>> articleFutures = sourceObservation.scoped(() -> candidates.stream()
+                .map(link -> pageFetcher.fetchAsync(link.url())
+                        .thenApply(newsDoc -> saveNews(link, sourceName, newsDoc, sourceUrl, sourceObservation))
+                        .whenComplete((saved, e) -> {
+                            if (e == null) {
+                                urlDeduplicator.markStored(link.urlHash());
+                                metrics.articleStored(sourceName);
+                            } else {
+                                urlDeduplicator.release(link.urlHash());
+                                metrics.articleFailed(sourceName);
+                            }
+                        })
+                        .exceptionally(e -> {
+                            log.error("Error processing news {}: {}", link.url(), rootMessage(e), e);
+                            return null;
+                        }))
+                .toList());
+        
+        boolean complete = !truncated;
+        return CompletableFuture.allOf(articleFutures.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    List<News> stored = articleFutures.stream()
+                            .map(CompletableFuture::join)
+                            .filter(Objects::nonNull)
+                            .toList();
+                    // A page cut off at the cap or with a failed article keeps its old validators,
+                    // so the links it missed are read again next run
+                    boolean allRead = complete && stored.size() == candidates.size();
+                    fetchStateStore.update(discovery.state(), allRead ? discovery.validators() : null, discovery.feedUrl());
+                    return stored;
+                });
+    }
+
+    /**
+     * Article links on a source listing page
+     */
+    private static List<PageLink> listingLinks(String sourceUrl, Document doc) {
         Elements newsElements;
         if (sourceUrl.contains("yahoo")) {
             newsElements = doc.select("h3 a");
@@ -90,50 +221,111 @@ public class NewsCollectorService {
             newsElements = doc.select("article h2 a, article h3 a");
         }
         
+        List<PageLink> links = new ArrayList<>();
         for (Element element : newsElements) {
-            try {
-                String title = element.text().trim();
-                String url = element.absUrl("href");
-                
-                if (title.isEmpty() || url.isEmpty()) {
-                    continue;
-                }
-                
-                if (newsRepository.findByTitleContainingIgnoreCase(title).stream()
-                        .anyMatch(n -> n.getUrl().equals(url))) {
-                    continue;
-                }
-                
-                Document newsDoc = Jsoup.connect(url).get();
-                String content = extractContent(newsDoc, sourceUrl);
-                
-                News news = News.builder()
-                        .title(title)
-                        .content(content)
-                        .source(sourceName)
-                        .url(url)
-                        .publishedAt(LocalDateTime.now()) // Ideally extract from page
-                        .collectedAt(LocalDateTime.now())
-                        .build();
-                
-                News savedNews = newsRepository.save(news);
-                newsList.add(savedNews);
-                
-                if (newsList.size() >= 5) {
-                    break;
-                }
-            } catch (Exception e) {
-                log.error("Error processing news element: {}", e.getMessage(), e);
-            }
+            addLink(links, element.text(), element.absUrl("href"));
         }
-        
-        return newsList;
+        return links;
+    }
+
+    /**
+     * Article links in an RSS feed, an Atom feed or a news sitemap
+     */
+    static List<PageLink> feedLinks(Document feed) {
+        List<PageLink> links = new ArrayList<>();
+        for (Element item : feed.select("item")) {
+            addLink(links, textOf(item, "title"), textOf(item, "link"));
+        }
+        for (Element entry : feed.select("entry")) {
+            Element link = entry.selectFirst("link[rel=alternate], link:not([rel])");
+            addLink(links, textOf(entry, "title"), link == null ? null : link.absUrl("href"));
+        }
+        for (Element url : feed.select("url")) {
+            addLink(links, textOf(url, "news|title"), textOf(url, "loc"));
+        }
+        return links;
+    }
+
+    /**
+     * RSS or Atom feed a listing page advertises in its head, if any
+     */
+    private static String advertisedFeed(Document doc) {
+        Element link = doc.selectFirst("link[rel=alternate][type~=(rss|atom)\\+xml][href]");
+        if (link == null) {
+            return null;
+        }
+        String href = link.absUrl("href");
+        return href.isEmpty() ? null : href;
+    }
+
+    private static void addLink(List<PageLink> links, String title, String url) {
+        if (title == null || url == null || title.isBlank() || !url.startsWith("http")) {
+            return;
+        }
+        links.add(new PageLink(title.trim(), url));
+    }
+
+    private static String textOf(Element parent, String cssQuery) {
+        Element element = parent.selectFirst(cssQuery);
+        return element == null ? null : element.text();
+    }
+
+    /**
+     * Extract, cluster and store a fetched article, observed under its source
+     */
+    private News saveNews(ArticleLink link, String sourceName, Document newsDoc, String sourceUrl, Observation sourceObservation) {
+        Observation observation = metrics.stage("news.article", sourceObservation)
+                .lowCardinalityKeyValue("source", sourceName)
+                .highCardinalityKeyValue("url", link.url());
+        return observation.observe(() -> {
+            News news = News.builder()
+                    .title(link.title())
+                    .content(extractContent(newsDoc, sourceUrl))
+                    .source(sourceName)
+                    .url(link.url())
+                    .urlHash(link.urlHash())
+                    .publishedAt(LocalDateTime.now()) // Ideally extract from page
+                    .collectedAt(LocalDateTime.now())
+                    .build();
+            
+            News saved = storyClusterer.saveClustered(news);
+            observation.highCardinalityKeyValue(PipelineMetrics.NEWS_ID, String.valueOf(saved.getId()));
+            eventPublisher.publishEvent(new NewsSavedEvent(saved));
+            return saved;
+        });
+    }
+
+    /**
+     * A listing page and the feed or sitemap read in its place, if it has one
+     */
+    private record NewsSource(String url, String feedUrl) {
+    }
+
+    record PageLink(String title, String url) {
+    }
+
+    /**
+     * Links read from a listing or feed, with what to store about that page once they are claimed
+     */
+    private record Discovery(List<PageLink> links, FetchState state, PageFetcher.Validators validators, String feedUrl, boolean changed) {
+    }
+
+    private record ArticleLink(String title, String url, String urlHash) {
+    }
+
+    private static String sourceName(String sourceUrl) {
+        return sourceUrl.replaceAll("https?://(?:www\\.)?([^/]+).*", "$1");
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage();
     }
 
     /**
      * Extract content from news page based on source
      */
-    private String extractContent(Document doc, String sourceUrl) {
+    String extractContent(Document doc, String sourceUrl) {
         String content;
         
         if (sourceUrl.contains("yahoo")) {
@@ -0,0 +1,290 @@
+package com.news2option.service;
+
+import com.news2option.dto.SearchDocument;
+import com.news2option.dto.SearchHit;
+import com.news2option.dto.SearchPage;
+import com.news2option.event.AnalysisSavedEvent;
+import com.news2option.event.NewsArchivedEvent;
+import com.news2option.event.NewsSavedEvent;
+import com.news2option.model.News;
+import com.news2option.repository.NewsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over news titles, article text and analysis text. Documents
+ * are updated as articles and analyses are saved, become searchable after the next
+ * periodic refresh, and are committed to disk in the background. The index is
+ * rebuilt from the database at startup when its document count disagrees.
+ */
+@Component
+@Slf4j
+public class NewsSearchIndex {
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String ANALYSIS = "analysis";
+    private static final String SOURCE = "source";
+    private static final String URL = "url";
+    private static final String PUBLISHED_AT = "publishedAt";
+
+    private static final String[] SEARCH_FIELDS = {TITLE, CONTENT, ANALYSIS};
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(TITLE, 3f, CONTENT, 1f, ANALYSIS, 1f);
+
+    /**
+     * Results beyond this rank are not served; deep pages cost more than they are worth
+     */
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    /**
+     * Stored text with offsets in the postings, so highlighting never re-analyzes documents
+     */
+    private static final FieldType TEXT_WITH_OFFSETS = new FieldType();
+
+    static {
+        TEXT_WITH_OFFSETS.setTokenized(true);
+        TEXT_WITH_OFFSETS.setStored(true);
+        TEXT_WITH_OFFSETS.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        TEXT_WITH_OFFSETS.freeze();
+    }
+
+    private final NewsRepository newsRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public NewsSearchIndex(NewsRepository newsRepository,
+                           @Value("${search.index.dir:./data/search-index}") String directory) {
+        this.newsRepository = newsRepository;
+        try {
+            IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            this.writer = new IndexWriter(FSDirectory.open(Path.of(directory)), config);
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open search index " + directory, e);
+        }
+    }
+
+    /**
+     * Rebuild the index from the database if it has fallen out of step, e.g. after
+     * the index directory was removed or the database was replaced
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIfStale() throws IOException {
+        long expected = newsRepository.count();
+        long indexed = writer.getDocStats().numDocs;
+        if (indexed == expected) {
+            return;
+        }
+        
+        log.info("Search index holds {} documents but {} news articles exist, rebuilding", indexed, expected);
+        writer.deleteAll();
+        long count = 0;
+        try (Stream<SearchDocument> documents = newsRepository.streamSearchDocuments()) {
+            for (SearchDocument document : (Iterable<SearchDocument>) documents::iterator) {
+                writer.updateDocument(new Term(ID, String.valueOf(document.newsId())), toDocument(document));
+                count++;
+            }
+        }
+        writer.commit();
+        searcherManager.maybeRefresh();
+        log.info("Rebuilt search index from {} rows", count);
+    }
+
+    @EventListener
+    public void onNewsSaved(NewsSavedEvent event) {
+        News news = event.news();
+        index(new SearchDocument(news.getId(), news.getTitle(), news.getContent(), news.getSource(), news.getUrl(),
+                news.getPublishedAt(), null));
+    }
+
+    /**
+     * Archived articles are no longer searchable; the archive API serves them instead
+     */
+    @EventListener
+    public void onNewsArchived(NewsArchivedEvent event) {
+        Term[] ids = event.newsIds().stream()
+                .map(id -> new Term(ID, String.valueOf(id)))
+                .toArray(Term[]::new);
+        try {
+            writer.deleteDocuments(ids);
+        } catch (IOException e) {
+            log.warn("Failed to remove {} archived articles from the search index: {}", ids.length, e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onAnalysisSaved(AnalysisSavedEvent event) {
+        News news = event.analysis().getNews();
+        index(new SearchDocument(news.getId(), news.getTitle(), news.getContent(), news.getSource(), news.getUrl(),
+                news.getPublishedAt(), event.analysis().getAnalysisContent()));
+    }
+
+    /**
+     * Search titles, content and analyses, best matches first. The query accepts
+     * Lucene syntax; input that does not parse is searched as plain terms.
+     */
+    public SearchPage search(String queryText, int page, int size) throws IOException {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Invalid page " + page + " or size " + size);
+        }
+        int from = page * size;
+        if (from >= MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Results beyond rank " + MAX_RESULT_WINDOW + " are not available");
+        }
+        int to = Math.min(from + size, MAX_RESULT_WINDOW);
+        
+        Query query = parse(queryText);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, to);
+            ScoreDoc[] pageDocs = from < topDocs.scoreDocs.length
+                    ? Arrays.copyOfRange(topDocs.scoreDocs, from, topDocs.scoreDocs.length)
+                    : new ScoreDoc[0];
+            
+            UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                    .withMaxNoHighlightPassages(0)
+                    .build();
+            Map<String, String[]> highlights = highlighter.highlightFields(SEARCH_FIELDS, query,
+                    new TopDocs(topDocs.totalHits, pageDocs), new int[]{1, 2, 2});
+            
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchHit> hits = new ArrayList<>(pageDocs.length);
+            for (int i = 0; i < pageDocs.length; i++) {
+                Document document = storedFields.document(pageDocs[i].doc);
+                String publishedAt = document.get(PUBLISHED_AT);
+                hits.add(new SearchHit(
+                        Long.valueOf(document.get(ID)),
+                        document.get(TITLE),
+                        document.get(SOURCE),
+                        document.get(URL),
+                        publishedAt == null ? null : LocalDateTime.parse(publishedAt),
+                        pageDocs[i].score,
+                        highlights.get(TITLE)[i],
+                        highlights.get(CONTENT)[i],
+                        highlights.get(ANALYSIS)[i]));
+            }
+            return new SearchPage(topDocs.totalHits.value, page, size, hits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Make recent updates visible to searches
+     */
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Failed to refresh search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Persist pending updates so a restart does not need a rebuild
+     */
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms:30000}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to commit search index: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    private void index(SearchDocument document) {
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(document.newsId())), toDocument(document));
+        } catch (IOException e) {
+            log.warn("Failed to index news {}: {}", document.newsId(), e.getMessage());
+        }
+    }
+
+    private Query parse(String queryText) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer, FIELD_BOOSTS);
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException e) {
+            try {
+                return parser.parse(QueryParser.escape(queryText));
+            } catch (ParseException escaped) {
+                throw new IllegalArgumentException("Unsearchable query: " + queryText, escaped);
+            }
+        }
+    }
+
+    private static Document toDocument(SearchDocument source) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(source.newsId()), Field.Store.YES));
+        addText(document, TITLE, source.title());
+        addText(document, CONTENT, source.content());
+        addText(document, ANALYSIS, source.analysisContent());
+        if (source.source() != null) {
+            document.add(new StoredField(SOURCE, source.source()));
+        }
+        if (source.url() != null) {
+            document.add(new StoredField(URL, source.url()));
+        }
+        if (source.publishedAt() != null) {
+            document.add(new StoredField(PUBLISHED_AT, source.publishedAt().toString()));
+        }
+        return document;
+    }
+
+    private static void addText(Document document, String field, String text) {
+        if (text != null && !text.isEmpty()) {
+            document.add(new Field(field, text, TEXT_WITH_OFFSETS));
+        }
+    }
+}
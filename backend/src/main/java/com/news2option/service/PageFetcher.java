@@ -0,0 +1,291 @@
+package com.news2option.service;
+
+import com.news2option.config.BoundedInputStream;
+import io.micrometer.observation.Observation;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.helper.HttpConnection;
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches and parses web pages on a bounded worker pool, limiting how many
+ * requests may be in flight against a single host at once. Requests go through
+ * the shared pooled HTTP client so connections are reused across runs. Pages
+ * that are read again and again, such as listings and feeds, can be fetched
+ * conditionally so an unchanged page costs neither bandwidth nor parsing.
+ */
+@Component
+@Slf4j
+public class PageFetcher {
+
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService executor;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final int perHostConcurrency;
+    private final int timeoutMillis;
+    private final long maxPageBytes;
+    private final Path recordDirectory;
+    private final PipelineMetrics metrics;
+
+    public PageFetcher(CloseableHttpClient httpClient,
+                       PipelineMetrics metrics,
+                       @Value("${news.fetch.max-concurrency:16}") int maxConcurrency,
+                       @Value("${news.fetch.per-host-concurrency:2}") int perHostConcurrency,
+                       @Value("${news.fetch.timeout-ms:10000}") int timeoutMillis,
+                       @Value("${news.fetch.max-page-bytes:5242880}") long maxPageBytes,
+                       @Value("${news.fetch.record-dir:}") String recordDirectory) {
+        this.httpClient = httpClient;
+        this.metrics = metrics;
+        this.executor = Executors.newFixedThreadPool(maxConcurrency, fetchThreadFactory());
+        this.perHostConcurrency = perHostConcurrency;
+        this.timeoutMillis = timeoutMillis;
+        this.maxPageBytes = maxPageBytes;
+        this.recordDirectory = recordDirectory.isBlank() ? null : Path.of(recordDirectory);
+    }
+
+    /**
+     * File name under which a page is recorded for offline replay
+     */
+    static String snapshotName(String url) {
+        return UrlDeduplicator.hash(url) + ".html";
+    }
+
+    /**
+     * Fetch a page asynchronously on the fetch pool, observed as a child of the
+     * caller's current stage
+     */
+    public CompletableFuture<Document> fetchAsync(String url) {
+        return observeAsync(url, () -> fetch(url));
+    }
+
+    /**
+     * Fetch a page asynchronously unless it is unchanged since the given validators
+     */
+    public CompletableFuture<ConditionalPage> fetchIfChangedAsync(String url, Validators previous, boolean xml) {
+        return observeAsync(url, () -> fetchIfChanged(url, previous, xml));
+    }
+
+    /**
+     * Fetch a page on the calling thread, honouring the per-host limit
+     */
+    public Document fetch(String url) throws IOException {
+        return execute(newRequest(url), url, response -> parse(url, response));
+    }
+
+    /**
+     * Fetch a page with If-None-Match and If-Modified-Since taken from the previous
+     * fetch. A 304, or a body with the same hash as last time, comes back unchanged
+     * without being parsed; XML pages such as feeds and sitemaps are parsed as XML.
+     */
+    public ConditionalPage fetchIfChanged(String url, Validators previous, boolean xml) throws IOException {
+        HttpGet request = newRequest(url);
+        if (previous != null && previous.etag() != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, previous.etag());
+        }
+        if (previous != null && previous.lastModified() != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+        }
+        return execute(request, url, response -> parseIfChanged(url, response, previous, xml));
+    }
+
+    private <T> CompletableFuture<T> observeAsync(String url, Observation.CheckedCallable<T, IOException> fetch) {
+        Observation observation = metrics.stage("news.fetch", metrics.currentStage())
+                .lowCardinalityKeyValue("source", sourceOf(url))
+                .highCardinalityKeyValue("url", url);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return observation.observeChecked(fetch);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private <T> T execute(HttpGet request, String url, HttpClientResponseHandler<T> handler) throws IOException {
+        Semaphore permits = hostPermits.computeIfAbsent(hostOf(url), host -> new Semaphore(perHostConcurrency));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to fetch " + url, e);
+        }
+        try {
+            return httpClient.execute(request, handler);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private HttpGet newRequest(String url) {
+        HttpGet request = new HttpGet(url);
+        request.setHeader(HttpHeaders.USER_AGENT, HttpConnection.DEFAULT_UA);
+        request.setConfig(RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(timeoutMillis))
+                .build());
+        return request;
+    }
+
+    private Document parse(String url, ClassicHttpResponse response) throws IOException {
+        HttpEntity entity = checkedEntity(url, response);
+        Charset charset = charsetOf(entity);
+        Document doc;
+        try (BoundedInputStream body = new BoundedInputStream(entity.getContent(), maxPageBytes)) {
+            doc = Jsoup.parse(body, charset == null ? null : charset.name(), url);
+            metrics.pageBytes(sourceOf(url), body.getCount());
+        }
+        record(url, doc);
+        return doc;
+    }
+
+    private ConditionalPage parseIfChanged(String url, ClassicHttpResponse response, Validators previous, boolean xml) throws IOException {
+        if (response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+            EntityUtils.consume(response.getEntity());
+            metrics.pageUnchanged(sourceOf(url), "not_modified");
+            return new ConditionalPage(null, previous, false);
+        }
+        
+        HttpEntity entity = checkedEntity(url, response);
+        Charset charset = charsetOf(entity);
+        byte[] body;
+        try (BoundedInputStream in = new BoundedInputStream(entity.getContent(), maxPageBytes)) {
+            body = in.readAllBytes();
+        }
+        metrics.pageBytes(sourceOf(url), body.length);
+        
+        Validators validators = new Validators(headerValue(response, HttpHeaders.ETAG),
+                headerValue(response, HttpHeaders.LAST_MODIFIED), contentHash(body));
+        if (previous != null && validators.contentHash().equals(previous.contentHash())) {
+            metrics.pageUnchanged(sourceOf(url), "same_content");
+            return new ConditionalPage(null, validators, false);
+        }
+        
+        Document doc = Jsoup.parse(new ByteArrayInputStream(body), charset == null ? null : charset.name(), url,
+                xml ? Parser.xmlParser() : Parser.htmlParser());
+        record(url, doc);
+        return new ConditionalPage(doc, validators, true);
+    }
+
+    private static HttpEntity checkedEntity(String url, ClassicHttpResponse response) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (response.getCode() >= 300 || entity == null) {
+            EntityUtils.consume(entity);
+            throw new HttpStatusException("HTTP error fetching URL", response.getCode(), url);
+        }
+        return entity;
+    }
+
+    private static Charset charsetOf(HttpEntity entity) {
+        ContentType contentType = ContentType.parseLenient(entity.getContentType());
+        return contentType == null ? null : contentType.getCharset();
+    }
+
+    private static String headerValue(ClassicHttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    private static String contentHash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Keep a copy of the page for the replay profile when recording is enabled
+     */
+    private void record(String url, Document doc) {
+        if (recordDirectory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(recordDirectory);
+            Files.writeString(recordDirectory.resolve(snapshotName(url)), doc.outerHtml(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Failed to record snapshot of {}: {}", url, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Host without a leading www., as used for the source tag on fetch metrics
+     */
+    static String sourceOf(String url) {
+        String host = hostOf(url);
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? url : host.toLowerCase();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Cache validators and body hash from a previous fetch; any of them may be null
+     */
+    public record Validators(String etag, String lastModified, String contentHash) {
+    }
+
+    /**
+     * Result of a conditional fetch; the document is null when the page is unchanged
+     */
+    public record ConditionalPage(Document document, Validators validators, boolean changed) {
+    }
+
+    private static ThreadFactory fetchThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "page-fetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package com.news2option.service;
+
+import com.news2option.model.NewsAnalysis;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters and observations for the collect → analyse → persist → recommend pipeline.
+ * Each stage runs as an observation, which Actuator turns into a timer and, with
+ * tracing on, a span; spans carry the news id so one article can be followed from
+ * its fetch to its stored analysis. Counters and summaries cover what the timers
+ * cannot: bytes fetched, articles deduplicated or skipped, Gemini token usage,
+ * unparseable responses and rows written.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String NEWS_ID = "news.id";
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    public PipelineMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Create a stage observation, a child of whichever observation is in scope
+     */
+    public Observation stage(String name) {
+        return Observation.createNotStarted(name, observationRegistry);
+    }
+
+    /**
+     * Create a stage observation under an explicit parent, for work handed to another thread
+     */
+    public Observation stage(String name, Observation parent) {
+        return Observation.createNotStarted(name, observationRegistry).parentObservation(parent);
+    }
+
+    /**
+     * The observation in scope on this thread, if any
+     */
+    public Observation currentStage() {
+        return observationRegistry.getCurrentObservation();
+    }
+
+    public void pageBytes(String source, long bytes) {
+        DistributionSummary.builder("news.fetch.bytes")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * Count conditional fetches that found the page unchanged, by reason (not_modified or same_content)
+     */
+    public void pageUnchanged(String source, String reason) {
+        meterRegistry.counter("news.fetch.unchanged", "source", source, "reason", reason).increment();
+    }
+
+    public void articlesDiscovered(String source, int count) {
+        meterRegistry.counter("news.articles.discovered", "source", source).increment(count);
+    }
+
+    public void articlesDeduplicated(String source, int count) {
+        meterRegistry.counter("news.articles.deduplicated", "source", source).increment(count);
+    }
+
+    public void articleStored(String source) {
+        meterRegistry.counter("news.articles.stored", "source", source).increment();
+    }
+
+    public void articleFailed(String source) {
+        meterRegistry.counter("news.articles.failed", "source", source).increment();
+    }
+
+    public void articlesArchived(long count) {
+        meterRegistry.counter("news.articles.archived").increment(count);
+    }
+
+    public void tasksQueued(long count) {
+        meterRegistry.counter("analysis.tasks.queued").increment(count);
+    }
+
+    /**
+     * Count articles screened out before analysis, by reason (duplicate or irrelevant)
+     */
+    public void tasksSkipped(String reason, long count) {
+        meterRegistry.counter("analysis.tasks.skipped", "reason", reason).increment(count);
+    }
+
+    /**
+     * Count finished analysis attempts, by outcome (done, retry or failed)
+     */
+    public void taskOutcome(String outcome) {
+        meterRegistry.counter("analysis.tasks.finished", "outcome", outcome).increment();
+    }
+
+    /**
+     * Record Gemini token usage for one call, by direction (prompt or response)
+     */
+    public void geminiTokens(String direction, long tokens) {
+        DistributionSummary.builder("gemini.tokens")
+                .baseUnit("tokens")
+                .tag("direction", direction)
+                .register(meterRegistry)
+                .record(tokens);
+    }
+
+    /**
+     * Count model answers that could not be read, by kind of response
+     */
+    public void parseFailure(String response) {
+        meterRegistry.counter("gemini.parse.failures", "response", response).increment();
+    }
+
+    public void rowsPersisted(String table, long rows) {
+        meterRegistry.counter("db.rows.persisted", "table", table).increment(rows);
+    }
+
+    /**
+     * Count the rows an analysis graph was stored as
+     */
+    public void analysisPersisted(NewsAnalysis analysis) {
+        rowsPersisted("news_analysis", 1);
+        rowsPersisted("industry_impact", analysis.getIndustryImpacts().size());
+        rowsPersisted("company_impact", analysis.getIndustryImpacts().stream()
+                .mapToLong(industry -> industry.getCompanyImpacts() == null ? 0 : industry.getCompanyImpacts().size())
+                .sum());
+    }
+}
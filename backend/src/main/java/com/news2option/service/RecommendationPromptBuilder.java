@@ -0,0 +1,311 @@
+package com.news2option.service;
+
+import com.news2option.dto.AnalysisImpactRow;
+import com.news2option.model.DailyInvestmentRecommendation;
+import com.news2option.model.IndustryImpact;
+import com.news2option.model.RecommendedInvestment;
+import com.news2option.repository.DailyInvestmentRecommendationRepository;
+import com.news2option.repository.NewsAnalysisRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Builds the recommendation prompt within a fixed token budget. Recent analyses are
+ * read through a single flattened query and condensed as they stream past: analysis
+ * text is truncated, and every company is merged into one line no matter how many
+ * analyses mention it. Analyses are then ranked by total impact score, decayed by
+ * age, and added best first until the budget is spent. Intraday updates send only
+ * the analyses made since the previous snapshot, together with that snapshot.
+ */
+@Component
+@Slf4j
+public class RecommendationPromptBuilder {
+
+    private static final String RESPONSE_FORMAT =
+            "Please provide a comprehensive investment recommendation in JSON format:\n" +
+            "{\n" +
+            "  \"summary\": \"Overall market summary and investment outlook\",\n" +
+            "  \"overallSentiment\": \"BULLISH/BEARISH/NEUTRAL\",\n" +
+            "  \"recommendedInvestments\": [\n" +
+            "    {\n" +
+            "      \"industryName\": \"Industry name\",\n" +
+            "      \"companyName\": \"Company name\",\n" +
+            "      \"stockSymbol\": \"Stock symbol\",\n" +
+            "      \"recommendationType\": \"BUY/SELL/HOLD\",\n" +
+            "      \"confidenceScore\": 1-10,\n" +
+            "      \"rationale\": \"Explanation for this recommendation\"\n" +
+            "    }\n" +
+            "  ]\n" +
+            "}\n";
+
+    private final NewsAnalysisRepository newsAnalysisRepository;
+    private final DailyInvestmentRecommendationRepository recommendationRepository;
+    private final int maxPromptTokens;
+    private final int maxAnalysisChars;
+    private final double recencyHalfLifeHours;
+    private final double companyShare;
+
+    public RecommendationPromptBuilder(NewsAnalysisRepository newsAnalysisRepository,
+                                       DailyInvestmentRecommendationRepository recommendationRepository,
+                                       @Value("${recommendation.prompt.max-tokens:8000}") int maxPromptTokens,
+                                       @Value("${recommendation.prompt.max-analysis-chars:600}") int maxAnalysisChars,
+                                       @Value("${recommendation.prompt.recency-half-life-hours:12}") double recencyHalfLifeHours,
+                                       @Value("${recommendation.prompt.company-share:0.25}") double companyShare) {
+        this.newsAnalysisRepository = newsAnalysisRepository;
+        this.recommendationRepository = recommendationRepository;
+        this.maxPromptTokens = maxPromptTokens;
+        this.maxAnalysisChars = maxAnalysisChars;
+        this.recencyHalfLifeHours = recencyHalfLifeHours;
+        this.companyShare = companyShare;
+    }
+
+    /**
+     * Build the prompt for analyses made in (since, until], or null if there are none
+     */
+    @Transactional(readOnly = true)
+    public String buildPrompt(LocalDateTime since, LocalDateTime until) {
+        Digest digest = loadDigest(since, until);
+        if (digest.analyses().isEmpty()) {
+            return null;
+        }
+        
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Based on the following news analyses, provide investment recommendations:\n\n");
+        appendDigest(prompt, digest, maxPromptTokens - estimateTokens(prompt) - estimateTokens(RESPONSE_FORMAT));
+        prompt.append(RESPONSE_FORMAT);
+        return prompt.toString();
+    }
+
+    /**
+     * Build a prompt that asks for a previous snapshot to be revised in light of the
+     * analyses made in (since, until], or null if there are none
+     */
+    @Transactional(readOnly = true)
+    public String buildUpdatePrompt(Long previousId, LocalDateTime since, LocalDateTime until) {
+        Digest digest = loadDigest(since, until);
+        if (digest.analyses().isEmpty()) {
+            return null;
+        }
+        DailyInvestmentRecommendation previous = recommendationRepository.findById(previousId)
+                .orElseThrow(() -> new IllegalArgumentException("No recommendation " + previousId));
+        
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("The following investment recommendation was issued earlier today:\n\n");
+        prompt.append("Summary: ").append(previous.getSummary()).append("\n");
+        prompt.append("Overall Sentiment: ").append(previous.getOverallSentiment()).append("\n");
+        prompt.append("Recommended Investments:\n");
+        for (RecommendedInvestment investment : previous.getRecommendedInvestments()) {
+            prompt.append("- ").append(investment.getCompanyName())
+                  .append(" (").append(investment.getStockSymbol())
+                  .append(", ").append(investment.getIndustryName())
+                  .append("): ").append(investment.getRecommendationType())
+                  .append(", Confidence: ").append(investment.getConfidenceScore())
+                  .append(" - ").append(truncate(investment.getRationale(), 200))
+                  .append("\n");
+        }
+        prompt.append("\nSince then, the following news analyses have arrived:\n\n");
+        
+        String instructions = "Revise the recommendation in light of these new analyses. Keep recommendations that still hold, " +
+                "change or drop those the new information contradicts, and add new ones where warranted. " +
+                "Respond with the complete updated recommendation.\n";
+        appendDigest(prompt, digest, maxPromptTokens - estimateTokens(prompt) - estimateTokens(instructions) - estimateTokens(RESPONSE_FORMAT));
+        prompt.append(instructions);
+        prompt.append(RESPONSE_FORMAT);
+        return prompt.toString();
+    }
+
+    /**
+     * Rough token count of a piece of prompt text
+     */
+    static int estimateTokens(CharSequence text) {
+        return (text.length() + 3) / 4;
+    }
+
+    /**
+     * Append the company section and as many ranked analyses as fit in the budget
+     */
+    private void appendDigest(StringBuilder prompt, Digest digest, int budgetTokens) {
+        StringBuilder companies = new StringBuilder("Company Impacts (merged across all analyses):\n");
+        int companyBudget = (int) (budgetTokens * companyShare);
+        List<CompanyDigest> rankedCompanies = digest.companies().values().stream()
+                .sorted(Comparator.comparingLong(CompanyDigest::scoreSum).reversed())
+                .toList();
+        int companiesIncluded = 0;
+        for (CompanyDigest company : rankedCompanies) {
+            String line = company.render();
+            if (estimateTokens(companies) + estimateTokens(line) > companyBudget) {
+                break;
+            }
+            companies.append(line);
+            companiesIncluded++;
+        }
+        if (companiesIncluded < rankedCompanies.size()) {
+            companies.append("- ... and ").append(rankedCompanies.size() - companiesIncluded).append(" more companies\n");
+        }
+        companies.append("\n");
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<AnalysisDigest> rankedAnalyses = digest.analyses().stream()
+                .sorted(Comparator.comparingDouble((AnalysisDigest analysis) -> rank(analysis, now)).reversed())
+                .toList();
+        int remaining = budgetTokens - estimateTokens(companies);
+        int analysesIncluded = 0;
+        for (AnalysisDigest analysis : rankedAnalyses) {
+            String block = analysis.render();
+            int tokens = estimateTokens(block);
+            if (tokens > remaining) {
+                continue;
+            }
+            prompt.append(block);
+            remaining -= tokens;
+            analysesIncluded++;
+        }
+        prompt.append(companies);
+        
+        log.info("Recommendation prompt holds {} of {} analyses and {} of {} companies",
+                analysesIncluded, rankedAnalyses.size(), companiesIncluded, rankedCompanies.size());
+    }
+
+    /**
+     * Total impact score, halved for every half-life of age
+     */
+    private double rank(AnalysisDigest analysis, LocalDateTime now) {
+        double ageHours = Math.max(0, Duration.between(analysis.analyzedAt(), now).toMinutes() / 60.0);
+        return (1 + analysis.impactScore()) * Math.pow(0.5, ageHours / recencyHalfLifeHours);
+    }
+
+    /**
+     * Condense the flattened rows into one digest per analysis and one per company.
+     * Rows arrive ordered by analysis and industry.
+     */
+    private Digest loadDigest(LocalDateTime since, LocalDateTime until) {
+        List<AnalysisDigest> analyses = new ArrayList<>();
+        Map<String, CompanyDigest> companies = new LinkedHashMap<>();
+        
+        try (Stream<AnalysisImpactRow> rows = newsAnalysisRepository.streamImpactRowsAnalyzedBetween(since, until)) {
+            AnalysisDigest analysis = null;
+            IndustryDigest industry = null;
+            for (AnalysisImpactRow row : (Iterable<AnalysisImpactRow>) rows::iterator) {
+                if (analysis == null || !analysis.id().equals(row.analysisId())) {
+                    analysis = new AnalysisDigest(row.analysisId(), row.newsTitle(), truncate(row.analysisContent(), maxAnalysisChars),
+                            row.analyzedAt(), new ArrayList<>());
+                    analyses.add(analysis);
+                    industry = null;
+                }
+                
+                if (row.industryId() != null && (industry == null || !industry.id().equals(row.industryId()))) {
+                    industry = new IndustryDigest(row.industryId(), row.industryName(), row.industryImpactType(),
+                            row.industryImpactScore(), new LinkedHashSet<>());
+                    analysis.industries().add(industry);
+                }
+                
+                if (industry != null && row.companyName() != null) {
+                    String key = companyKey(row.companyName(), row.stockSymbol());
+                    industry.companies().add(row.stockSymbol() == null || row.stockSymbol().isBlank() ? row.companyName() : row.stockSymbol());
+                    companies.computeIfAbsent(key, k -> new CompanyDigest(row.companyName(), row.stockSymbol()))
+                            .add(row.companyImpactType(), row.companyImpactScore());
+                }
+            }
+        }
+        return new Digest(analyses, companies);
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null || text.length() <= maxChars) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', maxChars);
+        return text.substring(0, cut > maxChars / 2 ? cut : maxChars) + "...";
+    }
+
+    private static String companyKey(String name, String symbol) {
+        return symbol == null || symbol.isBlank()
+                ? "name:" + name.trim().toLowerCase(Locale.ROOT)
+                : "symbol:" + symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record Digest(List<AnalysisDigest> analyses, Map<String, CompanyDigest> companies) {
+    }
+
+    private record AnalysisDigest(Long id, String title, String content, LocalDateTime analyzedAt, List<IndustryDigest> industries) {
+        int impactScore() {
+            return industries.stream().mapToInt(industry -> Objects.requireNonNullElse(industry.score(), 0)).sum();
+        }
+        
+        String render() {
+            StringBuilder block = new StringBuilder();
+            block.append("News Title: ").append(title).append("\n");
+            block.append("Analysis: ").append(content).append("\n");
+            block.append("Industry Impacts:\n");
+            for (IndustryDigest industry : industries) {
+                block.append("- ").append(industry.name())
+                     .append(" (").append(industry.type())
+                     .append(", Score: ").append(industry.score())
+                     .append(")");
+                if (!industry.companies().isEmpty()) {
+                    block.append(": ").append(String.join(", ", industry.companies()));
+                }
+                block.append("\n");
+            }
+            return block.append("\n").toString();
+        }
+    }
+
+    private record IndustryDigest(Long id, String name, IndustryImpact.ImpactType type, Integer score, Set<String> companies) {
+    }
+
+    /**
+     * Every mention of one company, across all analyses
+     */
+    private static final class CompanyDigest {
+        private final String name;
+        private final String symbol;
+        private final Map<IndustryImpact.ImpactType, Integer> mentions = new EnumMap<>(IndustryImpact.ImpactType.class);
+        private int count;
+        private long scoreSum;
+        
+        CompanyDigest(String name, String symbol) {
+            this.name = name;
+            this.symbol = symbol;
+        }
+        
+        void add(IndustryImpact.ImpactType type, Integer score) {
+            if (type != null) {
+                mentions.merge(type, 1, Integer::sum);
+            }
+            count++;
+            scoreSum += score == null ? 0 : score;
+        }
+        
+        long scoreSum() {
+            return scoreSum;
+        }
+        
+        String render() {
+            StringBuilder line = new StringBuilder("- ").append(name);
+            if (symbol != null && !symbol.isBlank()) {
+                line.append(" (").append(symbol).append(")");
+            }
+            line.append(": ").append(count).append(count == 1 ? " mention" : " mentions");
+            mentions.forEach((type, mentionCount) -> line.append(", ").append(type).append(" x").append(mentionCount));
+            line.append(String.format(Locale.ROOT, ", average score %.1f\n", (double) scoreSum / count));
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.news2option.service;
+
+import com.news2option.model.News;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cheap local relevance check run before an article is queued for analysis. Articles
+ * with too little text are rejected outright; the rest are scored by the companies
+ * they mention, matched against a symbol/name dictionary, plus a weighted set of
+ * financial and off-topic keywords. The score also orders the analysis queue.
+ */
+@Component
+@Slf4j
+public class RelevanceScorer {
+
+    private static final int COMPANY_WEIGHT = 3;
+    private static final int MAX_COUNTED_COMPANIES = 4;
+    private static final int MAX_KEYWORD_SCORE = 8;
+
+    private static final Map<String, Integer> KEYWORD_WEIGHTS = Map.ofEntries(
+            Map.entry("earnings", 2), Map.entry("revenue", 2), Map.entry("profit", 2), Map.entry("guidance", 2),
+            Map.entry("quarterly", 1), Map.entry("forecast", 1), Map.entry("outlook", 1),
+            Map.entry("shares", 2), Map.entry("stock", 2), Map.entry("stocks", 2), Map.entry("investors", 1),
+            Map.entry("merger", 2), Map.entry("acquisition", 2), Map.entry("ipo", 2), Map.entry("buyback", 2),
+            Map.entry("dividend", 2), Map.entry("downgrade", 2), Map.entry("upgrade", 1), Map.entry("analysts", 1),
+            Map.entry("federal reserve", 2), Map.entry("interest rates", 2), Map.entry("inflation", 2),
+            Map.entry("tariffs", 2), Map.entry("recession", 2), Map.entry("bond yields", 2), Map.entry("treasury", 1),
+            Map.entry("oil prices", 2), Map.entry("opec", 2), Map.entry("nasdaq", 2), Map.entry("s&p 500", 2),
+            Map.entry("dow jones", 2), Map.entry("wall street", 1), Map.entry("market", 1), Map.entry("markets", 1),
+            Map.entry("sec", 1), Map.entry("lawsuit", 1), Map.entry("layoffs", 2), Map.entry("bankruptcy", 2),
+            Map.entry("recipe", -3), Map.entry("horoscope", -4), Map.entry("celebrity", -2), Map.entry("red carpet", -3),
+            Map.entry("box office", -1), Map.entry("touchdown", -3), Map.entry("playoffs", -2), Map.entry("fashion week", -3),
+            Map.entry("gossip", -3), Map.entry("sign in", -2), Map.entry("subscribe", -1), Map.entry("cookie policy", -3));
+
+    private final boolean enabled;
+    private final int minContentChars;
+    private final int minScore;
+
+    private final List<String> keywords = new ArrayList<>(KEYWORD_WEIGHTS.keySet());
+    private final AhoCorasickMatcher keywordMatcher = new AhoCorasickMatcher(keywords, true);
+
+    /**
+     * Tickers are matched case-sensitively so that short symbols do not fire on
+     * ordinary words; company names are matched case-insensitively
+     */
+    private final AhoCorasickMatcher symbolMatcher;
+    private final AhoCorasickMatcher nameMatcher;
+    private final int[] symbolCompany;
+    private final int[] nameCompany;
+    private final int companyCount;
+
+    public RelevanceScorer(@Value("${relevance.enabled:true}") boolean enabled,
+                           @Value("${relevance.min-content-chars:200}") int minContentChars,
+                           @Value("${relevance.min-score:2}") int minScore,
+                           @Value("${relevance.dictionary:classpath:relevance/companies.csv}") Resource dictionary) {
+        this.enabled = enabled;
+        this.minContentChars = minContentChars;
+        this.minScore = minScore;
+        
+        List<String> symbols = new ArrayList<>();
+        List<Integer> symbolOwners = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> nameOwners = new ArrayList<>();
+        int companies = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(dictionary.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",");
+                String symbol = columns[0].trim();
+                // Single-letter symbols are too ambiguous to match on their own
+                if (symbol.length() > 1) {
+                    symbols.add(symbol);
+                    symbolOwners.add(companies);
+                }
+                for (int i = 1; i < columns.length; i++) {
+                    names.add(columns[i].trim());
+                    nameOwners.add(companies);
+                }
+                companies++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read relevance dictionary " + dictionary, e);
+        }
+        
+        this.symbolMatcher = new AhoCorasickMatcher(symbols, false);
+        this.nameMatcher = new AhoCorasickMatcher(names, true);
+        this.symbolCompany = symbolOwners.stream().mapToInt(Integer::intValue).toArray();
+        this.nameCompany = nameOwners.stream().mapToInt(Integer::intValue).toArray();
+        this.companyCount = companies;
+        log.info("Loaded relevance dictionary with {} companies", companies);
+    }
+
+    /**
+     * Decide whether an article is worth analysing and how urgently
+     */
+    public Assessment assess(News news) {
+        if (!enabled) {
+            return new Assessment(true, 0, null);
+        }
+        int contentLength = news.getContent() == null ? 0 : news.getContent().trim().length();
+        if (contentLength < minContentChars) {
+            return new Assessment(false, 0, "Content too short (" + contentLength + " characters)");
+        }
+        
+        String text = news.getTitle() + "\n" + news.getContent();
+        
+        BitSet companies = new BitSet(companyCount);
+        symbolMatcher.forEachMatch(text, id -> companies.set(symbolCompany[id]));
+        nameMatcher.forEachMatch(text, id -> companies.set(nameCompany[id]));
+        
+        BitSet matchedKeywords = new BitSet(keywords.size());
+        keywordMatcher.forEachMatch(text, matchedKeywords::set);
+        int keywordScore = 0;
+        for (int id = matchedKeywords.nextSetBit(0); id >= 0; id = matchedKeywords.nextSetBit(id + 1)) {
+            keywordScore += KEYWORD_WEIGHTS.get(keywords.get(id));
+        }
+        
+        int score = Math.min(companies.cardinality(), MAX_COUNTED_COMPANIES) * COMPANY_WEIGHT
+                + Math.min(keywordScore, MAX_KEYWORD_SCORE);
+        if (score < minScore) {
+            return new Assessment(false, score, "Relevance score " + score + " below " + minScore);
+        }
+        return new Assessment(true, score, null);
+    }
+
+    /**
+     * Outcome of the relevance check; {@code reason} explains a rejection
+     */
+    public record Assessment(boolean relevant, int score, String reason) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.news2option.service;
+
+import com.news2option.event.AnalysisSavedEvent;
+import com.news2option.model.AnalysisTask;
+import com.news2option.model.News;
+import com.news2option.repository.AnalysisTaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load driver for the replay profile. Runs collect → analyse → persist → recommend
+ * against the replay page fetcher and the local Gemini stand-in until a target
+ * number of articles has been collected at a target rate, then waits for the
+ * analysis queue to drain. Reports throughput and per-stage p50/p99 latencies:
+ * collect is one collector run, enqueue is screening and queueing its articles,
+ * analyse is the time from queueing an article to its analysis being stored, and
+ * recommend is one recommendation generation that stored a new version.
+ */
+@Service
+@Profile("replay")
+@Slf4j
+public class ReplayLoadDriver {
+
+    private static final int STATUS_CHECK_CHUNK = 1000;
+
+    private final NewsCollectorService newsCollectorService;
+    private final AnalysisQueueService analysisQueueService;
+    private final InvestmentRecommendationService recommendationService;
+    private final AnalysisTaskRepository taskRepository;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replay-load");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Articles queued by the current run that have not been analysed yet, with their queueing time
+    private final Map<Long, Long> awaitingAnalysis = new ConcurrentHashMap<>();
+    private volatile Run current;
+
+    @Value("${replay.load.drain-timeout-seconds:300}")
+    private long drainTimeoutSeconds;
+
+    public ReplayLoadDriver(NewsCollectorService newsCollectorService,
+                            AnalysisQueueService analysisQueueService,
+                            InvestmentRecommendationService recommendationService,
+                            AnalysisTaskRepository taskRepository) {
+        this.newsCollectorService = newsCollectorService;
+        this.analysisQueueService = analysisQueueService;
+        this.recommendationService = recommendationService;
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Start a load run in the background; false if one is already running
+     */
+    public boolean start(int articles, int articlesPerMinute, int recommendEveryRuns) {
+        if (articles <= 0 || articlesPerMinute <= 0 || recommendEveryRuns < 0) {
+            throw new IllegalArgumentException("Article count and rate must be positive");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Run run = new Run(articles, articlesPerMinute, recommendEveryRuns);
+        current = run;
+        runner.execute(() -> execute(run));
+        return true;
+    }
+
+    /**
+     * Report for the current or most recent run, or null if none has been started
+     */
+    public LoadReport getReport() {
+        Run run = current;
+        return run == null ? null : run.report(awaitingAnalysis.size());
+    }
+
+    @EventListener
+    public void onAnalysisSaved(AnalysisSavedEvent event) {
+        Run run = current;
+        Long queuedAt = awaitingAnalysis.remove(event.analysis().getNews().getId());
+        if (run != null && queuedAt != null) {
+            run.analyse.record(System.nanoTime() - queuedAt);
+            run.analysed.incrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private void execute(Run run) {
+        log.info("Replay load run started: {} articles at {} per minute", run.targetArticles, run.articlesPerMinute);
+        try {
+            int collectRuns = 0;
+            while (run.collected.get() < run.targetArticles && !Thread.currentThread().isInterrupted()) {
+                long started = System.nanoTime();
+                List<News> collected = newsCollectorService.collectNews();
+                run.collect.record(System.nanoTime() - started);
+                if (collected.isEmpty()) {
+                    throw new IllegalStateException("Collector returned no articles");
+                }
+                
+                long queuedAt = System.nanoTime();
+                collected.forEach(news -> awaitingAnalysis.put(news.getId(), queuedAt));
+                analysisQueueService.enqueue(collected);
+                run.enqueue.record(System.nanoTime() - queuedAt);
+                run.collected.addAndGet(collected.size());
+                forgetFinishedWithoutAnalysis(collected.stream().map(News::getId).toList(), run);
+                
+                collectRuns++;
+                if (run.recommendEveryRuns > 0 && collectRuns % run.recommendEveryRuns == 0) {
+                    recommend(run);
+                }
+                pace(run);
+            }
+            
+            drain(run);
+            recommend(run);
+            run.status = "COMPLETED";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.status = "INTERRUPTED";
+        } catch (RuntimeException e) {
+            log.error("Replay load run failed: {}", e.getMessage(), e);
+            run.status = "FAILED: " + e.getMessage();
+        } finally {
+            run.finishedAt = System.nanoTime();
+            log.info("Replay load run finished: {}", run.report(awaitingAnalysis.size()));
+            awaitingAnalysis.clear();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Sleep until the collected count is back on the requested rate
+     */
+    private void pace(Run run) throws InterruptedException {
+        long dueNanos = run.collected.get() * TimeUnit.MINUTES.toNanos(1) / run.articlesPerMinute;
+        long aheadNanos = dueNanos - (System.nanoTime() - run.startedAt);
+        if (aheadNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+        }
+    }
+
+    /**
+     * Wait for every queued article to be analysed, skipped or given up on
+     */
+    private void drain(Run run) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainTimeoutSeconds);
+        while (!awaitingAnalysis.isEmpty() && System.nanoTime() < deadline) {
+            TimeUnit.SECONDS.sleep(1);
+            forgetFinishedWithoutAnalysis(new ArrayList<>(awaitingAnalysis.keySet()), run);
+        }
+        if (!awaitingAnalysis.isEmpty()) {
+            log.warn("{} articles still awaiting analysis after {}s", awaitingAnalysis.size(), drainTimeoutSeconds);
+        }
+    }
+
+    private void forgetFinishedWithoutAnalysis(List<Long> newsIds, Run run) {
+        for (int from = 0; from < newsIds.size(); from += STATUS_CHECK_CHUNK) {
+            List<Long> chunk = newsIds.subList(from, Math.min(newsIds.size(), from + STATUS_CHECK_CHUNK));
+            for (AnalysisTask task : taskRepository.findByNewsIdIn(chunk)) {
+                if (task.getStatus() == AnalysisTask.TaskStatus.SKIPPED && awaitingAnalysis.remove(task.getNewsId()) != null) {
+                    run.skipped.incrementAndGet();
+                } else if (task.getStatus() == AnalysisTask.TaskStatus.FAILED && awaitingAnalysis.remove(task.getNewsId()) != null) {
+                    run.failed.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Generate a recommendation, timing only calls that stored one; a call with no
+     * new analyses returns without asking the model
+     */
+    private void recommend(Run run) {
+        long started = System.nanoTime();
+        if (recommendationService.generateDailyRecommendations()) {
+            run.recommend.record(System.nanoTime() - started);
+        }
+    }
+
+    private static final class Run {
+        final int targetArticles;
+        final int articlesPerMinute;
+        final int recommendEveryRuns;
+        final long startedAt = System.nanoTime();
+        volatile long finishedAt;
+        volatile String status = "RUNNING";
+        
+        final AtomicLong collected = new AtomicLong();
+        final AtomicLong analysed = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        
+        final LatencySamples collect = new LatencySamples();
+        final LatencySamples enqueue = new LatencySamples();
+        final LatencySamples analyse = new LatencySamples();
+        final LatencySamples recommend = new LatencySamples();
+        
+        Run(int targetArticles, int articlesPerMinute, int recommendEveryRuns) {
+            this.targetArticles = targetArticles;
+            this.articlesPerMinute = articlesPerMinute;
+            this.recommendEveryRuns = recommendEveryRuns;
+        }
+        
+        LoadReport report(int pending) {
+            long end = finishedAt == 0 ? System.nanoTime() : finishedAt;
+            double elapsedSeconds = (end - startedAt) / 1e9;
+            double minutes = Math.max(elapsedSeconds, 1e-3) / 60;
+            
+            Map<String, StageStats> stages = new LinkedHashMap<>();
+            stages.put("collect", collect.stats());
+            stages.put("enqueue", enqueue.stats());
+            stages.put("analyse", analyse.stats());
+            stages.put("recommend", recommend.stats());
+            return new LoadReport(status, targetArticles, articlesPerMinute, collected.get(), analysed.get(),
+                    skipped.get(), failed.get(), pending, elapsedSeconds,
+                    collected.get() / minutes, analysed.get() / minutes, stages);
+        }
+    }
+
+    /**
+     * Latency samples in nanoseconds, kept in full so percentiles are exact
+     */
+    private static final class LatencySamples {
+        private long[] samples = new long[256];
+        private int count;
+        
+        synchronized void record(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+        
+        StageStats stats() {
+            long[] sorted;
+            synchronized (this) {
+                sorted = Arrays.copyOf(samples, count);
+            }
+            if (sorted.length == 0) {
+                return new StageStats(0, 0, 0, 0);
+            }
+            Arrays.sort(sorted);
+            return new StageStats(sorted.length, percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+        }
+        
+        private static double percentile(long[] sorted, double quantile) {
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+
+    public record StageStats(long count, double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    public record LoadReport(String status, int targetArticles, int articlesPerMinute,
+                             long collected, long analysed, long skipped, long failed, long pending,
+                             double elapsedSeconds, double collectedPerMinute, double analysedPerMinute,
+                             Map<String, StageStats> stages) {
+    }
+}
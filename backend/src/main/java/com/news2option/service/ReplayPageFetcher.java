@@ -0,0 +1,199 @@
+package com.news2option.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Page fetcher for the replay profile. Pages recorded with news.fetch.record-dir
+ * are served from the snapshot directory; any other source listing or article is
+ * generated on the fly with the markup the collector expects from that source, and
+ * any other feed as RSS, so every listing or feed fetch yields fresh articles.
+ * Nothing goes over the network.
+ */
+@Component
+@Primary
+@Profile("replay")
+@Slf4j
+public class ReplayPageFetcher extends PageFetcher {
+
+    private static final String ARTICLE_PATH = "/replay/article/";
+
+    private static final String[] COMPANIES = {
+            "Apple", "Microsoft", "Alphabet", "Amazon", "Nvidia", "Tesla", "JPMorgan", "Visa", "Mastercard",
+            "UnitedHealth", "Exxon Mobil", "Chevron", "Home Depot", "Eli Lilly", "Pfizer", "Costco", "Walmart",
+            "Bank of America", "Wells Fargo", "Goldman Sachs"
+    };
+
+    private static final String[] WORDS = (
+            "market shares investors earnings quarter revenue growth guidance analysts rates inflation bond yields " +
+            "treasury dollar oil prices supply chain semiconductor demand outlook profit margin forecast consumer " +
+            "spending retail sales lending credit housing index futures rally decline volatility sector technology " +
+            "energy healthcare industrials utilities dividend buyback merger acquisition regulator filing tariffs " +
+            "exports factory orders payrolls unemployment wages capital expenditure cloud advertising pricing " +
+            "inventory shipments backlog refinancing downgrade upgrade valuation momentum liquidity").split(" ");
+
+    private final Path snapshotDirectory;
+    private final int articlesPerListing;
+    private final int paragraphsPerArticle;
+    // Seeded from the clock so restarts against a kept database do not reuse article URLs
+    private final AtomicLong nextArticle = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    public ReplayPageFetcher(CloseableHttpClient httpClient,
+                             PipelineMetrics metrics,
+                             @Value("${news.fetch.max-concurrency:16}") int maxConcurrency,
+                             @Value("${news.fetch.timeout-ms:10000}") int timeoutMillis,
+                             @Value("${replay.snapshots.dir:./data/snapshots}") String snapshotDirectory,
+                             @Value("${replay.synthetic.articles-per-listing:5}") int articlesPerListing,
+                             @Value("${replay.synthetic.paragraphs-per-article:6}") int paragraphsPerArticle) {
+        super(httpClient, metrics, maxConcurrency, Integer.MAX_VALUE, timeoutMillis, Long.MAX_VALUE, "");
+        this.snapshotDirectory = Path.of(snapshotDirectory);
+        this.articlesPerListing = articlesPerListing;
+        this.paragraphsPerArticle = paragraphsPerArticle;
+    }
+
+    @Override
+    public Document fetch(String url) throws IOException {
+        return replay(url, false);
+    }
+
+    /**
+     * Replayed pages are always reported as changed, so every run discovers fresh articles
+     */
+    @Override
+    public ConditionalPage fetchIfChanged(String url, Validators previous, boolean xml) throws IOException {
+        return new ConditionalPage(replay(url, xml), null, true);
+    }
+
+    private Document replay(String url, boolean xml) throws IOException {
+        Parser parser = xml ? Parser.xmlParser() : Parser.htmlParser();
+        try {
+            String page = Files.readString(snapshotDirectory.resolve(snapshotName(url)), StandardCharsets.UTF_8);
+            return Jsoup.parse(page, url, parser);
+        } catch (NoSuchFileException e) {
+            // not recorded; fall through to a synthetic page
+        }
+        
+        URI uri = URI.create(url);
+        if (uri.getHost() == null) {
+            throw new HttpStatusException("No snapshot for URL", 404, url);
+        }
+        String page;
+        if (uri.getPath() != null && uri.getPath().startsWith(ARTICLE_PATH)) {
+            page = syntheticArticle(uri);
+        } else {
+            page = xml ? syntheticFeed(uri) : syntheticListing(uri);
+        }
+        return Jsoup.parse(page, url, parser);
+    }
+
+    private String syntheticListing(URI uri) {
+        Markup markup = Markup.forHost(uri.getHost());
+        StringBuilder html = new StringBuilder("<html><head><title>Markets</title></head><body><main>\n");
+        for (int i = 0; i < articlesPerListing; i++) {
+            long article = nextArticle.incrementAndGet();
+            html.append(markup.listingLink.formatted(articleUrl(uri, article), articleTitle(article))).append('\n');
+        }
+        return html.append("</main></body></html>").toString();
+    }
+
+    private String syntheticFeed(URI uri) {
+        StringBuilder rss = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\"><channel><title>Markets</title>\n");
+        for (int i = 0; i < articlesPerListing; i++) {
+            long article = nextArticle.incrementAndGet();
+            rss.append("<item><title>").append(articleTitle(article)).append("</title><link>")
+                    .append(articleUrl(uri, article)).append("</link></item>\n");
+        }
+        return rss.append("</channel></rss>").toString();
+    }
+
+    private static String articleUrl(URI uri, long article) {
+        return uri.getScheme() + "://" + uri.getHost() + ARTICLE_PATH + article;
+    }
+
+    private static String articleTitle(long article) {
+        Random random = new Random(article);
+        return COMPANIES[random.nextInt(COMPANIES.length)] + " " + sentence(random, 6, 10);
+    }
+
+    private String syntheticArticle(URI uri) {
+        long article = Long.parseLong(uri.getPath().substring(ARTICLE_PATH.length()));
+        Random random = new Random(article);
+        Markup markup = Markup.forHost(uri.getHost());
+        
+        StringBuilder body = new StringBuilder();
+        for (int p = 0; p < paragraphsPerArticle; p++) {
+            body.append("<p>");
+            if (p < 2) {
+                body.append(COMPANIES[random.nextInt(COMPANIES.length)]).append(" reported ");
+            }
+            for (int s = 0; s < 3; s++) {
+                body.append(sentence(random, 10, 20)).append(' ');
+            }
+            body.append("</p>\n");
+        }
+        return "<html><head><title>Article " + article + "</title></head><body>\n" +
+                markup.articleBody.formatted(body) +
+                "\n</body></html>";
+    }
+
+    private static String sentence(Random random, int minWords, int maxWords) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.append('.').toString();
+    }
+
+    /**
+     * Listing link and article body markup matching the selectors the collector
+     * uses for each source
+     */
+    private enum Markup {
+        YAHOO("yahoo", "<h3><a href=\"%s\">%s</a></h3>", "<div class=\"caas-body\">%s</div>"),
+        CNBC("cnbc", "<a class=\"Card-title\" href=\"%s\">%s</a>", "<div class=\"ArticleBody-articleBody\">%s</div>"),
+        BLOOMBERG("bloomberg", "<article><h3><a href=\"%s\">%s</a></h3></article>", "<div class=\"body-content\">%s</div>"),
+        REUTERS("reuters", "<a class=\"text-story__title__link\" href=\"%s\">%s</a>", "<div class=\"article-body__content\">%s</div>"),
+        FT("ft.com", "<a class=\"js-teaser-heading-link\" href=\"%s\">%s</a>", "<div class=\"article__content\">%s</div>"),
+        GENERIC("", "<article><h2><a href=\"%s\">%s</a></h2></article>", "<article>%s</article>");
+        
+        private final String hostFragment;
+        private final String listingLink;
+        private final String articleBody;
+        
+        Markup(String hostFragment, String listingLink, String articleBody) {
+            this.hostFragment = hostFragment;
+            this.listingLink = listingLink;
+            this.articleBody = articleBody;
+        }
+        
+        static Markup forHost(String host) {
+            for (Markup markup : values()) {
+                if (host.contains(markup.hostFragment)) {
+                    return markup;
+                }
+            }
+            return GENERIC;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.news2option.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.news2option.event.AnalysisSavedEvent;
+import com.news2option.event.NewsArchivedEvent;
+import com.news2option.event.NewsSavedEvent;
+import com.news2option.event.RecommendationSavedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-side cache of serialised JSON responses for endpoints whose data only
+ * changes when the collector, analysis or recommendation services store something.
+ * Entries are kept as bytes with an ETag and Last-Modified time so a hit skips JPA
+ * and Jackson entirely and a matching conditional request gets a 304. Entries are
+ * dropped when the services publish a save event or articles are archived, with
+ * a TTL as a safety net.
+ */
+@Component
+public class ResponseCache {
+
+    public static final String RECENT_NEWS = "news:recent";
+    public static final String RECENT_ANALYSES = "analysis:recent";
+    public static final String RECOMMENDATIONS = "recommendations:";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation; a response loaded across a bump is served but not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    public ResponseCache(ObjectMapper objectMapper,
+                         @Value("${response.cache.enabled:true}") boolean enabled,
+                         @Value("${response.cache.ttl-seconds:600}") long ttlSeconds,
+                         @Value("${response.cache.max-entries:256}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Serve the response stored under a key, loading and serialising it on a miss.
+     * A null from the loader becomes a 404 and is not cached.
+     */
+    public ResponseEntity<byte[]> serve(String key, WebRequest request, Supplier<?> loader) {
+        CachedResponse response = lookup(key);
+        if (response == null) {
+            response = load(key, loader);
+            if (response == null) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+        
+        if (request.checkNotModified(response.etag(), response.lastModified())) {
+            notModified.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(response.etag())
+                    .lastModified(response.lastModified())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(response.etag())
+                .lastModified(response.lastModified())
+                .body(response.body());
+    }
+
+    /**
+     * Drop every entry whose key starts with the given prefix
+     */
+    public synchronized void invalidate(String prefix) {
+        generation.incrementAndGet();
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @EventListener
+    public void onNewsSaved(NewsSavedEvent event) {
+        invalidate(RECENT_NEWS);
+    }
+
+    @EventListener
+    public void onAnalysisSaved(AnalysisSavedEvent event) {
+        invalidate(RECENT_ANALYSES);
+    }
+
+    @EventListener
+    public void onRecommendationSaved(RecommendationSavedEvent event) {
+        invalidate(RECOMMENDATIONS);
+    }
+
+    @EventListener
+    public void onNewsArchived(NewsArchivedEvent event) {
+        invalidate(RECENT_NEWS);
+        invalidate(RECENT_ANALYSES);
+    }
+
+    public ResponseCacheStats getStats() {
+        return new ResponseCacheStats(hits.get(), misses.get(), notModified.get(), entries.size());
+    }
+
+    private CachedResponse lookup(String key) {
+        if (!enabled) {
+            return null;
+        }
+        CachedResponse response = entries.get(key);
+        if (response == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - response.storedAt() > ttl.toMillis()) {
+            entries.remove(key, response);
+            return null;
+        }
+        hits.incrementAndGet();
+        return response;
+    }
+
+    private CachedResponse load(String key, Supplier<?> loader) {
+        misses.incrementAndGet();
+        long loadedGeneration = generation.get();
+        Object value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise response for " + key, e);
+        }
+        long now = System.currentTimeMillis();
+        // HTTP dates have second precision
+        CachedResponse response = new CachedResponse(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"", now / 1000 * 1000, now);
+        
+        store(key, response, loadedGeneration);
+        return response;
+    }
+
+    private synchronized void store(String key, CachedResponse response, long loadedGeneration) {
+        if (enabled && generation.get() == loadedGeneration && (entries.size() < maxEntries || entries.containsKey(key))) {
+            entries.put(key, response);
+        }
+    }
+
+    private record CachedResponse(byte[] body, String etag, long lastModified, long storedAt) {
+    }
+
+    public record ResponseCacheStats(long hits, long misses, long notModified, int entries) {
+    }
+}
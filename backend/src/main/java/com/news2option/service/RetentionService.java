@@ -0,0 +1,150 @@
+package com.news2option.service;
+
+import com.news2option.dto.ArchivedNews;
+import com.news2option.event.NewsArchivedEvent;
+import com.news2option.model.News;
+import com.news2option.model.NewsAnalysis;
+import com.news2option.repository.AnalysisTaskRepository;
+import com.news2option.repository.CompanyImpactRepository;
+import com.news2option.repository.IndustryImpactRepository;
+import com.news2option.repository.NewsAnalysisRepository;
+import com.news2option.repository.NewsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the primary store down to a hot window of recently collected articles.
+ * Older articles are moved to the archive in batches, together with their
+ * analyses, impacts and analysis tasks: each batch is appended to the archive
+ * first and deleted from the database only once the append has been synced.
+ * Impact rollups stay in place, so trend queries still cover archived periods.
+ */
+@Service
+@Slf4j
+public class RetentionService {
+
+    private final NewsRepository newsRepository;
+    private final NewsAnalysisRepository newsAnalysisRepository;
+    private final IndustryImpactRepository industryImpactRepository;
+    private final CompanyImpactRepository companyImpactRepository;
+    private final AnalysisTaskRepository taskRepository;
+    private final NewsArchive archive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PipelineMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${retention.hot-days:90}")
+    private int hotDays;
+
+    @Value("${retention.batch-size:200}")
+    private int batchSize;
+
+    public RetentionService(NewsRepository newsRepository,
+                            NewsAnalysisRepository newsAnalysisRepository,
+                            IndustryImpactRepository industryImpactRepository,
+                            CompanyImpactRepository companyImpactRepository,
+                            AnalysisTaskRepository taskRepository,
+                            NewsArchive archive,
+                            ApplicationEventPublisher eventPublisher,
+                            PipelineMetrics metrics,
+                            PlatformTransactionManager transactionManager) {
+        this.newsRepository = newsRepository;
+        this.newsAnalysisRepository = newsAnalysisRepository;
+        this.industryImpactRepository = industryImpactRepository;
+        this.companyImpactRepository = companyImpactRepository;
+        this.taskRepository = taskRepository;
+        this.archive = archive;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${retention.cron:0 30 3 * * ?}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archiveExpired();
+        }
+    }
+
+    /**
+     * Archive every article collected before the hot window; null if a run is already in progress
+     */
+    public RetentionReport archiveExpired() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            LocalDateTime cutoff = LocalDate.now().minusDays(hotDays).atStartOfDay();
+            long started = System.nanoTime();
+            long archived = 0;
+            List<Long> newsIds;
+            while (!(newsIds = newsRepository.findIdsCollectedBefore(cutoff, PageRequest.of(0, batchSize))).isEmpty()) {
+                archiveBatch(newsIds);
+                archived += newsIds.size();
+            }
+            
+            RetentionReport report = new RetentionReport(cutoff, archived, (System.nanoTime() - started) / 1e9);
+            if (archived > 0) {
+                log.info("Archived {} articles collected before {} in {}s", archived, cutoff, report.elapsedSeconds());
+            }
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void archiveBatch(List<Long> newsIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<News> news = newsRepository.findAllById(newsIds);
+            Map<Long, NewsAnalysis> analyses = newsAnalysisRepository.findWithImpactsByNewsIdIn(newsIds).stream()
+                    .collect(Collectors.toMap(analysis -> analysis.getNews().getId(), Function.identity()));
+            // Initialises the company impacts of the industry impacts loaded above
+            industryImpactRepository.findWithCompaniesByNewsIdIn(newsIds);
+            
+            List<ArchivedNews> articles = new ArrayList<>(news.size());
+            for (News article : news) {
+                NewsAnalysis analysis = analyses.get(article.getId());
+                articles.add(analysis == null
+                        ? new ArchivedNews(article, null, null, null)
+                        : new ArchivedNews(article, analysis.getAnalysisContent(), analysis.getAnalyzedAt(), analysis.getIndustryImpacts()));
+            }
+            try {
+                archive.append(articles);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to archive " + articles.size() + " articles", e);
+            }
+            
+            companyImpactRepository.deleteByNewsIdIn(newsIds);
+            industryImpactRepository.deleteByNewsIdIn(newsIds);
+            newsAnalysisRepository.deleteByNewsIdIn(newsIds);
+            taskRepository.deleteByNewsIdIn(newsIds);
+            newsRepository.deleteByIdIn(newsIds);
+        });
+        metrics.articlesArchived(newsIds.size());
+        eventPublisher.publishEvent(new NewsArchivedEvent(newsIds));
+    }
+
+    public record RetentionReport(LocalDateTime cutoff, long archived, double elapsedSeconds) {
+    }
+}
@@ -0,0 +1,290 @@
+package com.news2option.service;
+
+import com.news2option.dto.ImpactSample;
+import com.news2option.event.AnalysisSavedEvent;
+import com.news2option.model.CompanyImpact;
+import com.news2option.model.IndustryImpact;
+import com.news2option.model.NewsAnalysis;
+import com.news2option.repository.CompanyImpactRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory columnar time series of company impacts per ticker. Tickers are interned
+ * to dense ids; each series keeps parallel primitive arrays of epoch-millisecond
+ * timestamps, impact types and scores in time order. The store is loaded from the
+ * database at startup and appended to as analyses are saved, and range and moving
+ * average queries walk the arrays directly without allocating per row.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SentimentSeriesStore {
+
+    /**
+     * Upper bound on the number of points a moving-average query may return
+     */
+    public static final int MAX_POINTS = 10_000;
+
+    private static final byte POSITIVE = (byte) IndustryImpact.ImpactType.POSITIVE.ordinal();
+    private static final byte NEGATIVE = (byte) IndustryImpact.ImpactType.NEGATIVE.ordinal();
+
+    private final CompanyImpactRepository companyImpactRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> tickerIds = new HashMap<>();
+    private Series[] series = new Series[64];
+    private int tickerCount;
+
+    /**
+     * Load the full company impact history. The write lock is held throughout so
+     * analyses saved meanwhile are appended only after the history is in place.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            tickerIds.clear();
+            series = new Series[64];
+            tickerCount = 0;
+            long rows = 0;
+            try (Stream<ImpactSample> samples = companyImpactRepository.streamTickerSamplesInTimeOrder()) {
+                for (ImpactSample sample : (Iterable<ImpactSample>) samples::iterator) {
+                    if (append(sample.key(), sample.analyzedAt(), sample.impactType(), sample.impactScore())) {
+                        rows++;
+                    }
+                }
+            }
+            log.info("Loaded {} company impacts for {} tickers into the sentiment store", rows, tickerCount);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onAnalysisSaved(AnalysisSavedEvent event) {
+        NewsAnalysis analysis = event.analysis();
+        if (analysis.getIndustryImpacts() == null) {
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            for (IndustryImpact industry : analysis.getIndustryImpacts()) {
+                if (industry.getCompanyImpacts() == null) {
+                    continue;
+                }
+                for (CompanyImpact company : industry.getCompanyImpacts()) {
+                    append(company.getStockSymbol(), analysis.getAnalyzedAt(), company.getImpactType(), company.getImpactScore());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Impacts for a ticker in [from, to), as parallel arrays of timestamps and
+     * signed scores (positive impacts count up, negative down, neutral as zero)
+     */
+    public SentimentRange range(String ticker, LocalDateTime from, LocalDateTime to) {
+        String key = normalize(ticker);
+        long start = toEpochMillis(from);
+        long end = toEpochMillis(to);
+        
+        lock.readLock().lock();
+        try {
+            Series s = lookup(key);
+            if (s == null || start >= end) {
+                return new SentimentRange(key, new long[0], new int[0], 0, 0, 0, 0);
+            }
+            int lo = s.lowerBound(start);
+            int hi = s.lowerBound(end);
+            long[] timestamps = Arrays.copyOfRange(s.timestamps, lo, hi);
+            int[] sentiment = new int[hi - lo];
+            int positive = 0;
+            int negative = 0;
+            long sum = 0;
+            for (int i = lo; i < hi; i++) {
+                int signed = s.signedScore(i);
+                sentiment[i - lo] = signed;
+                sum += signed;
+                if (s.types[i] == POSITIVE) {
+                    positive++;
+                } else if (s.types[i] == NEGATIVE) {
+                    negative++;
+                }
+            }
+            int count = hi - lo;
+            return new SentimentRange(key, timestamps, sentiment, positive, negative, count - positive - negative,
+                    count == 0 ? 0 : (double) sum / count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average signed score over a trailing window, sampled every step from
+     * {@code from} to {@code to} inclusive. Points whose window holds no impacts
+     * have an average of zero and a count of zero.
+     */
+    public MovingAverage movingAverage(String ticker, LocalDateTime from, LocalDateTime to, Duration step, Duration window) {
+        if (step.isNegative() || step.isZero() || window.isNegative() || window.isZero() || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid moving average range");
+        }
+        String key = normalize(ticker);
+        long start = toEpochMillis(from);
+        long stepMillis = step.toMillis();
+        long windowMillis = window.toMillis();
+        long points = (toEpochMillis(to) - start) / stepMillis + 1;
+        if (points > MAX_POINTS) {
+            throw new IllegalArgumentException("Moving average would have more than " + MAX_POINTS + " points");
+        }
+        
+        double[] averages = new double[(int) points];
+        int[] counts = new int[(int) points];
+        
+        lock.readLock().lock();
+        try {
+            Series s = lookup(key);
+            if (s != null) {
+                int head = s.lowerBound(start - windowMillis + 1);
+                int tail = head;
+                long sum = 0;
+                for (int k = 0; k < points; k++) {
+                    long t = start + k * stepMillis;
+                    while (head < s.size && s.timestamps[head] <= t) {
+                        sum += s.signedScore(head++);
+                    }
+                    while (tail < head && s.timestamps[tail] <= t - windowMillis) {
+                        sum -= s.signedScore(tail++);
+                    }
+                    int count = head - tail;
+                    counts[k] = count;
+                    averages[k] = count == 0 ? 0 : (double) sum / count;
+                }
+            }
+            return new MovingAverage(key, start, stepMillis, windowMillis, averages, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Caller must hold the write lock
+     */
+    private boolean append(String ticker, LocalDateTime at, IndustryImpact.ImpactType type, Integer score) {
+        String key = normalize(ticker);
+        if (key == null || at == null || type == null) {
+            return false;
+        }
+        Integer id = tickerIds.get(key);
+        if (id == null) {
+            id = tickerCount++;
+            tickerIds.put(key, id);
+            if (id == series.length) {
+                series = Arrays.copyOf(series, series.length * 2);
+            }
+            series[id] = new Series();
+        }
+        series[id].append(toEpochMillis(at), (byte) type.ordinal(), clampScore(score));
+        return true;
+    }
+
+    private Series lookup(String key) {
+        Integer id = key == null ? null : tickerIds.get(key);
+        return id == null ? null : series[id];
+    }
+
+    private static String normalize(String ticker) {
+        if (ticker == null || ticker.isBlank()) {
+            return null;
+        }
+        return ticker.trim().toUpperCase();
+    }
+
+    private static byte clampScore(Integer score) {
+        if (score == null) {
+            return 0;
+        }
+        return (byte) Math.max(0, Math.min(score, 100));
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Parallel arrays for one ticker, sorted by timestamp
+     */
+    private static final class Series {
+        long[] timestamps = new long[16];
+        byte[] types = new byte[16];
+        byte[] scores = new byte[16];
+        int size;
+        
+        void append(long timestamp, byte type, byte score) {
+            if (size == timestamps.length) {
+                int capacity = size + (size >> 1);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                types = Arrays.copyOf(types, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+            // Analyses normally arrive in time order; an older one is inserted in place
+            int at = size > 0 && timestamps[size - 1] > timestamp ? lowerBound(timestamp + 1) : size;
+            if (at < size) {
+                System.arraycopy(timestamps, at, timestamps, at + 1, size - at);
+                System.arraycopy(types, at, types, at + 1, size - at);
+                System.arraycopy(scores, at, scores, at + 1, size - at);
+            }
+            timestamps[at] = timestamp;
+            types[at] = type;
+            scores[at] = score;
+            size++;
+        }
+        
+        /**
+         * Index of the first entry at or after the timestamp
+         */
+        int lowerBound(long timestamp) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (timestamps[mid] < timestamp) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+        
+        int signedScore(int index) {
+            byte type = types[index];
+            return type == POSITIVE ? scores[index] : type == NEGATIVE ? -scores[index] : 0;
+        }
+    }
+
+    public record SentimentRange(String ticker, long[] timestamps, int[] sentiment,
+                                 int positiveCount, int negativeCount, int neutralCount, double averageSentiment) {
+    }
+
+    public record MovingAverage(String ticker, long start, long stepMillis, long windowMillis,
+                                double[] averages, int[] counts) {
+    }
+}
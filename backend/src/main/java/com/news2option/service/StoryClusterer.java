@@ -0,0 +1,223 @@
+package com.news2option.service;
+
+import com.news2option.dto.StoryFingerprint;
+import com.news2option.model.News;
+import com.news2option.repository.NewsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Groups near-duplicate articles from different sources into story clusters. Each
+ * article's text is reduced to a 64-bit SimHash over word shingles; the hashes of
+ * recently collected articles are held in a banded LSH index with one band more than
+ * the maximum Hamming distance, so by pigeonhole any hash close enough to a new
+ * article shares at least one band with it and is found without a scan. An article joins the cluster of its nearest match, or
+ * starts a new cluster that it represents. Bands need at least four bits to stay
+ * selective, which limits the maximum distance to 15.
+ */
+@Component
+@Slf4j
+public class StoryClusterer implements SmartInitializingSingleton {
+
+    private static final int SHINGLE_SIZE = 2;
+    private static final int MIN_TOKENS = 20;
+    private static final int MAX_BANDS = 16;
+
+    private final NewsRepository newsRepository;
+    private final int maxDistance;
+    private final int bandCount;
+    private final int bandBits;
+    private final Duration window;
+
+    private final Map<Long, List<Entry>> bands = new HashMap<>();
+    private final Deque<Entry> byAge = new ArrayDeque<>();
+
+    public StoryClusterer(NewsRepository newsRepository,
+                          @Value("${news.cluster.max-distance:8}") int maxDistance,
+                          @Value("${news.cluster.window-hours:72}") long windowHours) {
+        if (maxDistance < 0 || maxDistance >= MAX_BANDS) {
+            throw new IllegalArgumentException("news.cluster.max-distance must be between 0 and " + (MAX_BANDS - 1) + ", was " + maxDistance);
+        }
+        this.newsRepository = newsRepository;
+        this.maxDistance = maxDistance;
+        this.bandCount = maxDistance + 1;
+        this.bandBits = 64 / bandCount;
+        this.window = Duration.ofHours(windowHours);
+    }
+
+    /**
+     * Warm up before the context is refreshed, which is when scheduled collection starts,
+     * so the first collected articles are matched against recent stories
+     */
+    @Override
+    @Transactional
+    public void afterSingletonsInstantiated() {
+        warmUp();
+    }
+
+    /**
+     * Load recent fingerprints into the index and cluster articles stored before
+     * clustering existed
+     */
+    @Transactional
+    public synchronized void warmUp() {
+        long[] loaded = {0};
+        try (Stream<StoryFingerprint> fingerprints = newsRepository.streamFingerprintsSince(LocalDateTime.now().minus(window))) {
+            fingerprints.forEach(fingerprint -> {
+                register(new Entry(fingerprint.simHash(), fingerprint.storyClusterId(), fingerprint.collectedAt()));
+                loaded[0]++;
+            });
+        }
+        
+        List<News> unclustered = newsRepository.findByStoryClusterIdIsNullOrderByIdAsc();
+        for (News news : unclustered) {
+            saveClustered(news);
+        }
+        log.info("Story clustering warmed with {} recent articles, clustered {} older ones", loaded[0], unclustered.size());
+    }
+
+    /**
+     * Fingerprint an article, assign it to a story cluster and save it. Assignment
+     * and save happen under one lock so two copies of a story collected at the same
+     * moment still end up in the same cluster.
+     */
+    public synchronized News saveClustered(News news) {
+        LocalDateTime collectedAt = news.getCollectedAt() == null ? LocalDateTime.now() : news.getCollectedAt();
+        evictOlderThan(LocalDateTime.now().minus(window));
+        
+        Long fingerprint = simHash(news.getTitle() + " " + (news.getContent() == null ? "" : news.getContent()));
+        Entry match = fingerprint == null ? null : findNearest(fingerprint);
+        news.setSimHash(fingerprint);
+        news.setStoryClusterId(match == null ? null : match.clusterId());
+        
+        News saved = newsRepository.save(news);
+        if (match == null) {
+            saved.setStoryClusterId(saved.getId());
+            saved = newsRepository.save(saved);
+        } else {
+            log.debug("News {} joins story cluster {}", saved.getId(), match.clusterId());
+        }
+        
+        if (fingerprint != null) {
+            register(new Entry(fingerprint, saved.getStoryClusterId(), collectedAt));
+        }
+        return saved;
+    }
+
+    /**
+     * SimHash of the word shingles of a text, or null if the text is too short to
+     * fingerprint reliably
+     */
+    static Long simHash(String text) {
+        String[] tokens = text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        List<String> words = new ArrayList<>(tokens.length);
+        for (String token : tokens) {
+            if (!token.isEmpty()) {
+                words.add(token);
+            }
+        }
+        if (words.size() < MIN_TOKENS) {
+            return null;
+        }
+        
+        int[] weights = new int[64];
+        for (int i = 0; i + SHINGLE_SIZE <= words.size(); i++) {
+            long hash = hash64(String.join(" ", words.subList(i, i + SHINGLE_SIZE)));
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+            }
+        }
+        
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    private Entry findNearest(long fingerprint) {
+        Entry nearest = null;
+        int nearestDistance = maxDistance + 1;
+        for (int band = 0; band < bandCount; band++) {
+            List<Entry> candidates = bands.get(bandKey(band, fingerprint));
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry candidate : candidates) {
+                int distance = Long.bitCount(candidate.simHash() ^ fingerprint);
+                if (distance < nearestDistance) {
+                    nearest = candidate;
+                    nearestDistance = distance;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private void register(Entry entry) {
+        for (int band = 0; band < bandCount; band++) {
+            bands.computeIfAbsent(bandKey(band, entry.simHash()), key -> new ArrayList<>()).add(entry);
+        }
+        byAge.addLast(entry);
+    }
+
+    private void evictOlderThan(LocalDateTime cutoff) {
+        while (!byAge.isEmpty() && byAge.peekFirst().collectedAt().isBefore(cutoff)) {
+            Entry expired = byAge.pollFirst();
+            for (int band = 0; band < bandCount; band++) {
+                long key = bandKey(band, expired.simHash());
+                List<Entry> bucket = bands.get(key);
+                if (bucket != null) {
+                    bucket.remove(expired);
+                    if (bucket.isEmpty()) {
+                        bands.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Band number in the top bits, the band's hash bits below
+     */
+    long bandKey(int band, long fingerprint) {
+        long bits = (fingerprint >>> (band * bandBits)) & ((1L << bandBits) - 1);
+        return ((long) band << bandBits) | bits;
+    }
+
+    /**
+     * 64-bit FNV-1a followed by a murmur-style finaliser to spread the bits
+     */
+    private static long hash64(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private record Entry(long simHash, long clusterId, LocalDateTime collectedAt) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.news2option.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for an analysis JSON document that arrives in fragments.
+ * Text is fed to a non-blocking Jackson parser as it streams in; the top-level
+ * "analysis" string and each element of "industries" are handed to callbacks as
+ * soon as they are complete, so only one industry is ever buffered at a time.
+ */
+class StreamingAnalysisParser {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final Consumer<String> onAnalysis;
+    private final Consumer<JsonNode> onIndustry;
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private String rootField;
+    private boolean inIndustries;
+    private TokenBuffer industryBuffer;
+
+    StreamingAnalysisParser(ObjectMapper objectMapper, Consumer<String> onAnalysis, Consumer<JsonNode> onIndustry) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.onAnalysis = onAnalysis;
+        this.onIndustry = onIndustry;
+    }
+
+    /**
+     * Feed the next fragment of model output
+     */
+    void feed(String fragment) throws IOException {
+        if (finished) {
+            return;
+        }
+        if (!started) {
+            // Skip any preamble such as a markdown code fence before the JSON object
+            int start = fragment.indexOf('{');
+            if (start < 0) {
+                return;
+            }
+            fragment = fragment.substring(start);
+            started = true;
+        }
+        
+        byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+        ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    /**
+     * Whether the top-level object has been closed
+     */
+    boolean isComplete() {
+        return finished;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (industryBuffer != null) {
+                industryBuffer.copyCurrentEvent(parser);
+            }
+            
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> {
+                    depth++;
+                    if (token == JsonToken.START_OBJECT && inIndustries && depth == 3) {
+                        industryBuffer = new TokenBuffer(parser);
+                        industryBuffer.copyCurrentEvent(parser);
+                    } else if (token == JsonToken.START_ARRAY && depth == 2 && "industries".equals(rootField)) {
+                        inIndustries = true;
+                    }
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    if (token == JsonToken.END_OBJECT && industryBuffer != null && depth == 3) {
+                        JsonNode industry = objectMapper.readTree(industryBuffer.asParser(objectMapper));
+                        industryBuffer = null;
+                        onIndustry.accept(industry);
+                    } else if (token == JsonToken.END_ARRAY && inIndustries && depth == 2) {
+                        inIndustries = false;
+                    }
+                    depth--;
+                    if (depth == 0) {
+                        finished = true;
+                        parser.getNonBlockingInputFeeder().endOfInput();
+                    }
+                }
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        rootField = parser.currentName();
+                    }
+                }
+                case VALUE_STRING -> {
+                    if (depth == 1 && "analysis".equals(rootField)) {
+                        onAnalysis.accept(parser.getText());
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.news2option.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking token bucket: permits refill continuously at a fixed rate up to a
+ * burst capacity, and {@link #acquire()} waits until one is available.
+ */
+class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double permitsPerNano;
+    private double available;
+    private long lastRefill;
+
+    TokenBucketRateLimiter(double permitsPerMinute, int burst) {
+        this.capacity = Math.max(1, burst);
+        this.permitsPerNano = permitsPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.available = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (available >= 1) {
+                    available -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - available) / permitsPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        available = Math.min(capacity, available + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,206 @@
+package com.news2option.service;
+
+import com.news2option.model.News;
+import com.news2option.repository.NewsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decides whether an article URL has already been collected. URLs are reduced
+ * to a canonical SHA-256 hash; a Bloom filter answers "never seen" without a
+ * database round-trip, a bounded LRU set answers "recently seen", and only the
+ * remaining ambiguous cases fall through to the indexed url_hash column.
+ */
+@Component
+@Slf4j
+public class UrlDeduplicator implements SmartInitializingSingleton {
+
+    private static final Set<String> TRACKING_PARAMETERS = Set.of(
+            "fbclid", "gclid", "guccounter", "guce_referrer", "guce_referrer_sig", "ncid", ".tsrc"
+    );
+
+    private final NewsRepository newsRepository;
+    private final BloomFilter seenFilter;
+    private final Map<String, Boolean> recentHashes;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public UrlDeduplicator(NewsRepository newsRepository,
+                           @Value("${news.dedup.expected-urls:1000000}") long expectedUrls,
+                           @Value("${news.dedup.recent-capacity:50000}") int recentCapacity) {
+        this.newsRepository = newsRepository;
+        this.seenFilter = new BloomFilter(expectedUrls, 0.01);
+        this.recentHashes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentCapacity;
+            }
+        });
+    }
+
+    /**
+     * Warm up before the context is refreshed, which is when scheduled collection starts,
+     * so the collector never claims links against an empty filter
+     */
+    @Override
+    @Transactional
+    public void afterSingletonsInstantiated() {
+        warmUp();
+    }
+
+    /**
+     * Load every stored URL hash into the in-memory filters, backfilling rows saved before hashing existed
+     */
+    @Transactional
+    public void warmUp() {
+        List<News> unhashed = newsRepository.findByUrlHashIsNull();
+        for (News news : unhashed) {
+            news.setUrlHash(hash(news.getUrl()));
+        }
+        newsRepository.saveAll(unhashed);
+        
+        long[] count = {0};
+        try (Stream<String> hashes = newsRepository.streamAllUrlHashes()) {
+            hashes.forEach(urlHash -> {
+                remember(urlHash);
+                count[0]++;
+            });
+        }
+        log.info("URL deduplication warmed with {} known articles", count[0]);
+    }
+
+    /**
+     * Claim a URL hash for fetching. Returns false if the article is already stored
+     * or another fetch currently holds the claim.
+     */
+    public boolean tryClaim(String urlHash) {
+        if (!inFlight.add(urlHash)) {
+            return false;
+        }
+        if (isKnown(urlHash)) {
+            inFlight.remove(urlHash);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Record that a claimed URL hash has been stored
+     */
+    public void markStored(String urlHash) {
+        remember(urlHash);
+        inFlight.remove(urlHash);
+    }
+
+    /**
+     * Give up a claim after a failed fetch so a later run may retry the URL
+     */
+    public void release(String urlHash) {
+        inFlight.remove(urlHash);
+    }
+
+    /**
+     * Hash of the canonical form of a URL
+     */
+    public static String hash(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonicalize(url).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Normalise a URL so trivially different links to the same article compare equal:
+     * lower-cased scheme and host, no default port, fragment or tracking parameters,
+     * sorted query and no trailing slash.
+     */
+    static String canonicalize(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getHost() == null) {
+                return url.trim();
+            }
+            String scheme = uri.getScheme() == null ? "https" : uri.getScheme().toLowerCase();
+            int port = uri.getPort();
+            boolean defaultPort = port == -1 || (port == 80 && scheme.equals("http")) || (port == 443 && scheme.equals("https"));
+            
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            
+            StringBuilder canonical = new StringBuilder()
+                    .append(scheme).append("://").append(uri.getHost().toLowerCase());
+            if (!defaultPort) {
+                canonical.append(':').append(port);
+            }
+            canonical.append(path);
+            
+            if (uri.getRawQuery() != null) {
+                String query = Arrays.stream(uri.getRawQuery().split("&"))
+                        .filter(param -> !param.isEmpty() && !isTrackingParameter(param))
+                        .sorted()
+                        .collect(Collectors.joining("&"));
+                if (!query.isEmpty()) {
+                    canonical.append('?').append(query);
+                }
+            }
+            return canonical.toString();
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    private boolean isKnown(String urlHash) {
+        long[] bloomHashes = bloomHashes(urlHash);
+        if (!seenFilter.mightContain(bloomHashes[0], bloomHashes[1])) {
+            return false;
+        }
+        if (recentHashes.containsKey(urlHash)) {
+            return true;
+        }
+        if (newsRepository.existsByUrlHash(urlHash)) {
+            recentHashes.put(urlHash, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    private void remember(String urlHash) {
+        long[] bloomHashes = bloomHashes(urlHash);
+        seenFilter.put(bloomHashes[0], bloomHashes[1]);
+        recentHashes.put(urlHash, Boolean.TRUE);
+    }
+
+    private static long[] bloomHashes(String urlHash) {
+        return new long[] {
+                Long.parseUnsignedLong(urlHash.substring(0, 16), 16),
+                Long.parseUnsignedLong(urlHash.substring(16, 32), 16)
+        };
+    }
+
+    private static boolean isTrackingParameter(String param) {
+        String name = param.split("=", 2)[0].toLowerCase();
+        return name.startsWith("utm_") || TRACKING_PARAMETERS.contains(name);
+    }
+}
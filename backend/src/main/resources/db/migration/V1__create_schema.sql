@@ -0,0 +1,117 @@
+-- Baseline schema; entities are validated against it at startup (ddl-auto=validate)
+
+create sequence analysis_task_seq start with 1 increment by 50;
+create sequence company_impact_seq start with 1 increment by 50;
+create sequence daily_investment_recommendation_seq start with 1 increment by 50;
+create sequence impact_rollup_seq start with 1 increment by 50;
+create sequence industry_impact_seq start with 1 increment by 50;
+create sequence news_analysis_seq start with 1 increment by 50;
+create sequence recommended_investment_seq start with 1 increment by 50;
+
+create table news (
+    id bigint generated by default as identity,
+    title varchar(255),
+    content varchar(2000),
+    source varchar(255),
+    url varchar(255),
+    url_hash varchar(64),
+    published_at timestamp(6),
+    collected_at timestamp(6),
+    sim_hash bigint,
+    story_cluster_id bigint,
+    primary key (id),
+    constraint uk_news_url_hash unique (url_hash)
+);
+
+create table news_analysis (
+    id bigint not null,
+    news_id bigint,
+    analysis_content varchar(5000),
+    analyzed_at timestamp(6),
+    primary key (id),
+    constraint uk_news_analysis_news unique (news_id),
+    constraint fk_news_analysis_news foreign key (news_id) references news
+);
+
+create table industry_impact (
+    id bigint not null,
+    news_analysis_id bigint,
+    industry_name varchar(255),
+    impact_type varchar(255) check (impact_type in ('POSITIVE','NEGATIVE','NEUTRAL')),
+    impact_score integer,
+    primary key (id),
+    constraint fk_industry_impact_news_analysis foreign key (news_analysis_id) references news_analysis
+);
+
+create table company_impact (
+    id bigint not null,
+    industry_impact_id bigint,
+    company_name varchar(255),
+    stock_symbol varchar(255),
+    impact_type varchar(255) check (impact_type in ('POSITIVE','NEGATIVE','NEUTRAL')),
+    impact_score integer,
+    primary key (id),
+    constraint fk_company_impact_industry_impact foreign key (industry_impact_id) references industry_impact
+);
+
+create table daily_investment_recommendation (
+    id bigint not null,
+    date date,
+    version integer,
+    summary varchar(5000),
+    overall_sentiment varchar(255) check (overall_sentiment in ('BULLISH','BEARISH','NEUTRAL')),
+    generated_at timestamp(6),
+    analyses_through timestamp(6),
+    primary key (id)
+);
+
+create table recommended_investment (
+    id bigint not null,
+    recommendation_id bigint,
+    industry_name varchar(255),
+    company_name varchar(255),
+    stock_symbol varchar(255),
+    recommendation_type varchar(255) check (recommendation_type in ('BUY','SELL','HOLD')),
+    confidence_score integer,
+    rationale varchar(1000),
+    primary key (id),
+    constraint fk_recommended_investment_recommendation foreign key (recommendation_id) references daily_investment_recommendation
+);
+
+create table analysis_task (
+    id bigint not null,
+    news_id bigint not null,
+    status varchar(255) check (status in ('PENDING','IN_PROGRESS','DONE','FAILED','SKIPPED')),
+    priority integer,
+    attempts integer,
+    last_error varchar(1000),
+    created_at timestamp(6),
+    next_attempt_at timestamp(6),
+    completed_at timestamp(6),
+    primary key (id),
+    constraint uk_analysis_task_news unique (news_id)
+);
+
+create table impact_rollup (
+    id bigint not null,
+    dimension varchar(255) not null check (dimension in ('INDUSTRY','TICKER')),
+    dimension_key varchar(255) not null,
+    grain varchar(255) not null check (grain in ('HOURLY','DAILY')),
+    bucket_start timestamp(6) not null,
+    positive_count bigint not null,
+    negative_count bigint not null,
+    neutral_count bigint not null,
+    score_sum bigint not null,
+    primary key (id),
+    constraint uk_impact_rollup_bucket unique (bucket_start, dimension, dimension_key, grain)
+);
+
+-- News pages and feed windows scan by published or collected time; URL lookups go through uk_news_url_hash
+create index idx_news_published_at on news (published_at, id);
+create index idx_news_collected_at on news (collected_at);
+create index idx_news_story_cluster on news (story_cluster_id);
+create index idx_news_analysis_analyzed_at on news_analysis (analyzed_at, id);
+create index idx_company_impact_stock_symbol on company_impact (stock_symbol);
+create index idx_recommended_investment_stock_symbol on recommended_investment (stock_symbol);
+create index idx_recommendation_date on daily_investment_recommendation (date, version, id);
+create index idx_analysis_task_due on analysis_task (status, priority, next_attempt_at);
@@ -0,0 +1,16 @@
+-- Validators and content hashes of source listings, feeds and sitemaps for conditional fetching
+
+create sequence fetch_state_seq start with 1 increment by 50;
+
+create table fetch_state (
+    id bigint not null,
+    url varchar(2048),
+    url_hash varchar(64),
+    etag varchar(255),
+    last_modified varchar(255),
+    content_hash varchar(64),
+    feed_url varchar(2048),
+    changed_at timestamp(6),
+    primary key (id),
+    constraint uk_fetch_state_url_hash unique (url_hash)
+);
@@ -0,0 +1,67 @@
+package com.news2option.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickMatcherTest {
+
+    @Test
+    void reportsOverlappingWholeWordMatches() {
+        List<String> patterns = List.of("interest", "interest rates", "rates", "rates rise");
+        
+        assertThat(matches(patterns, true, "Interest rates rise again"))
+                .containsExactly("interest", "interest rates", "rates", "rates rise");
+    }
+
+    @Test
+    void inheritsMatchesThroughFailureLinks() {
+        List<String> patterns = List.of("new york times", "york", "york post");
+        
+        assertThat(matches(patterns, true, "the new york post")).containsExactly("york", "york post");
+    }
+
+    @Test
+    void followsFailureLinksAfterAPartialMatch() {
+        List<String> patterns = List.of("federal reserve", "reserve bank");
+        
+        assertThat(matches(patterns, true, "federal federal reserve bank"))
+                .containsExactly("federal reserve", "reserve bank");
+        assertThat(matches(List.of("aab"), true, "aaab aab")).containsExactly("aab");
+    }
+
+    @Test
+    void reportsEveryOccurrence() {
+        assertThat(matches(List.of("oil"), true, "Oil up, oil down; OIL flat")).containsExactly("oil", "oil", "oil");
+    }
+
+    @Test
+    void matchesOnlyWholeWords() {
+        List<String> patterns = List.of("he", "she", "his", "hers", "ipo");
+        
+        assertThat(matches(patterns, true, "ushers shepherd this hipokrit")).isEmpty();
+        assertThat(matches(patterns, true, "She said: his, hers (IPO)")).containsExactly("she", "his", "hers", "ipo");
+        assertThat(matches(List.of("s&p 500"), true, "The S&P 500 fell; S&P 5000 did not")).containsExactly("s&p 500");
+    }
+
+    @Test
+    void respectsCaseSensitivity() {
+        assertThat(matches(List.of("IT", "MA"), false, "It is IT, not Ma or ma but MA")).containsExactly("IT", "MA");
+        assertThat(matches(List.of("IT"), true, "it")).containsExactly("IT");
+    }
+
+    @Test
+    void ignoresEmptyPatternsAndNullText() {
+        assertThat(matches(List.of("", "  ", "gold"), true, "gold")).containsExactly("gold");
+        assertThat(matches(List.of("gold"), true, null)).isEmpty();
+    }
+
+    private static List<String> matches(List<String> patterns, boolean ignoreCase, String text) {
+        List<String> found = new ArrayList<>();
+        new AhoCorasickMatcher(patterns, ignoreCase).forEachMatch(text, id -> found.add(patterns.get(id)));
+        return found;
+    }
+}
@@ -0,0 +1,128 @@
+package com.news2option.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.news2option.model.AnalysisTask;
+import com.news2option.model.News;
+import com.news2option.repository.AnalysisTaskRepository;
+import com.news2option.repository.NewsAnalysisRepository;
+import com.news2option.repository.NewsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalysisQueueServiceTest {
+
+    private final AnalysisTaskRepository taskRepository = mock(AnalysisTaskRepository.class);
+    private final NewsRepository newsRepository = mock(NewsRepository.class);
+    private final RelevanceScorer relevanceScorer = mock(RelevanceScorer.class);
+    private final AnalysisQueueService queue = new AnalysisQueueService(taskRepository, newsRepository,
+            mock(NewsAnalysisRepository.class), mock(NewsAnalysisService.class), relevanceScorer,
+            new PipelineMetrics(new SimpleMeterRegistry(), ObservationRegistry.create()), 1, 5, 5000, 60, 5, 8, 6000);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.shutdown();
+    }
+
+    @Test
+    void copiesOfAStoryQueuedInTheSameCallAreSkipped() {
+        News representative = news(1L, 1L);
+        News copy = news(2L, 1L);
+        when(relevanceScorer.assess(representative)).thenReturn(new RelevanceScorer.Assessment(true, 5, null));
+        
+        Map<Long, AnalysisTask> tasks = enqueue(copy, representative);
+        
+        assertThat(tasks.get(1L).getStatus()).isEqualTo(AnalysisTask.TaskStatus.PENDING);
+        assertThat(tasks.get(2L).getStatus()).isEqualTo(AnalysisTask.TaskStatus.SKIPPED);
+        assertThat(tasks.get(2L).getLastError()).isEqualTo("Near-duplicate of news 1");
+        verify(relevanceScorer, never()).assess(copy);
+    }
+
+    @Test
+    void copyOfAStoryWhoseRepresentativeWasSkippedIsAssessedOnItsOwn() {
+        News representative = news(1L, 1L);
+        News copy = news(2L, 1L);
+        News secondCopy = news(3L, 1L);
+        when(relevanceScorer.assess(representative)).thenReturn(new RelevanceScorer.Assessment(false, 0, "Content too short (10 characters)"));
+        when(relevanceScorer.assess(copy)).thenReturn(new RelevanceScorer.Assessment(true, 4, null));
+        
+        Map<Long, AnalysisTask> tasks = enqueue(representative, copy, secondCopy);
+        
+        assertThat(tasks.get(1L).getStatus()).isEqualTo(AnalysisTask.TaskStatus.SKIPPED);
+        assertThat(tasks.get(2L).getStatus()).isEqualTo(AnalysisTask.TaskStatus.PENDING);
+        assertThat(tasks.get(3L).getStatus()).isEqualTo(AnalysisTask.TaskStatus.SKIPPED);
+    }
+
+    @Test
+    void copyOfAStoryAlreadyAnalyzedIsSkipped() {
+        News copy = news(7L, 1L);
+        when(newsRepository.findClusterIdsAnalyzedOrQueued(anyCollection(), anyCollection())).thenReturn(List.of(1L));
+        
+        Map<Long, AnalysisTask> tasks = enqueue(copy);
+        
+        assertThat(tasks.get(7L).getStatus()).isEqualTo(AnalysisTask.TaskStatus.SKIPPED);
+        verify(relevanceScorer, never()).assess(any());
+    }
+
+    @Test
+    void interruptedTasksAreRecoveredWhenTheQueueIsInitialized() {
+        queue.afterSingletonsInstantiated();
+        
+        InOrder recovery = inOrder(taskRepository);
+        recovery.verify(taskRepository).completeAnalyzed(eq(AnalysisTask.TaskStatus.IN_PROGRESS), eq(AnalysisTask.TaskStatus.DONE), any());
+        recovery.verify(taskRepository).updateStatus(AnalysisTask.TaskStatus.IN_PROGRESS, AnalysisTask.TaskStatus.PENDING);
+    }
+
+    @Test
+    void transientFailuresAreRetried() {
+        assertThat(AnalysisQueueService.isRetryable(new IOException("connection reset"))).isTrue();
+        assertThat(AnalysisQueueService.isRetryable(new IllegalStateException("stream ended early"))).isTrue();
+        assertThat(AnalysisQueueService.isRetryable(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "", null, null, null))).isTrue();
+        assertThat(AnalysisQueueService.isRetryable(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", null, null, null))).isTrue();
+    }
+
+    @Test
+    void permanentFailuresAreNotRetried() {
+        assertThat(AnalysisQueueService.isRetryable(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "", null, null, null))).isFalse();
+        assertThat(AnalysisQueueService.isRetryable(new DataIntegrityViolationException("uk_news_analysis_news"))).isFalse();
+        assertThat(AnalysisQueueService.isRetryable(new JsonParseException(null, "Unexpected character"))).isFalse();
+        assertThat(AnalysisQueueService.isRetryable(new IllegalArgumentException("No enum constant POSITIVE_ISH"))).isFalse();
+        assertThat(AnalysisQueueService.isRetryable(new CompletionException(new DataIntegrityViolationException("duplicate")))).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, AnalysisTask> enqueue(News... news) {
+        queue.enqueue(List.of(news));
+        ArgumentCaptor<List<AnalysisTask>> saved = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).saveAll(saved.capture());
+        return saved.getValue().stream().collect(Collectors.toMap(AnalysisTask::getNewsId, Function.identity()));
+    }
+
+    private static News news(Long id, Long storyClusterId) {
+        return News.builder().id(id).storyClusterId(storyClusterId).title("News " + id).build();
+    }
+}
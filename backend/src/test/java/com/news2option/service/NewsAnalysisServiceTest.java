@@ -0,0 +1,87 @@
+package com.news2option.service;
+
+import com.news2option.model.News;
+import com.news2option.model.NewsAnalysis;
+import com.news2option.repository.NewsAnalysisRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NewsAnalysisServiceTest {
+
+    private final NewsAnalysisRepository newsAnalysisRepository = mock(NewsAnalysisRepository.class);
+    private final GeminiClient geminiClient = mock(GeminiClient.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final News news = News.builder().id(1L).title("Rates fall").content("Banks slide").build();
+    private NewsAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NewsAnalysisService(newsAnalysisRepository, geminiClient, eventPublisher,
+                new PipelineMetrics(new SimpleMeterRegistry(), ObservationRegistry.create()));
+        ReflectionTestUtils.setField(service, "streamingEnabled", true);
+        when(newsAnalysisRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void streamedAnalysisIsSavedOnceWhenComplete() throws Exception {
+        stream("```json\n{\"industries\": [{\"name\": \"Bank", "ing\", \"impactType\": \"NEGATIVE\", \"impactScore\": 7, ",
+                "\"companies\": [{\"name\": \"JPMorgan\", \"stockSymbol\": \"JPM\", \"impactType\": \"NEG", "ATIVE\", \"impactScore\": 6}]}], ",
+                "\"analysis\": \"Lower rates squeeze margins\"}\n```");
+        
+        NewsAnalysis analysis = service.analyzeNews(news);
+        
+        ArgumentCaptor<NewsAnalysis> saved = ArgumentCaptor.forClass(NewsAnalysis.class);
+        verify(newsAnalysisRepository).save(saved.capture());
+        assertThat(saved.getValue()).isSameAs(analysis);
+        assertThat(analysis.getAnalysisContent()).isEqualTo("Lower rates squeeze margins");
+        assertThat(analysis.getAnalyzedAt()).isNotNull();
+        assertThat(analysis.getIndustryImpacts()).hasSize(1);
+        assertThat(analysis.getIndustryImpacts().get(0).getIndustryName()).isEqualTo("Banking");
+        assertThat(analysis.getIndustryImpacts().get(0).getCompanyImpacts().get(0).getStockSymbol()).isEqualTo("JPM");
+        verify(eventPublisher).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void truncatedStreamStoresNothing() throws Exception {
+        stream("{\"analysis\": \"x\", \"industries\": [{\"name\": \"Banking\", \"impactType\": \"NEGATIVE\", \"impactScore\": 7, \"companies\": []}");
+        
+        assertThatThrownBy(() -> service.analyzeNews(news)).isInstanceOf(IllegalStateException.class);
+        
+        verify(newsAnalysisRepository, never()).save(any());
+        verify(geminiClient).evict(anyString());
+    }
+
+    @Test
+    void unknownImpactTypeFailsBeforeAnythingIsStored() throws Exception {
+        stream("{\"industries\": [{\"name\": \"Banking\", \"impactType\": \"SIDEWAYS\", \"impactScore\": 7, \"companies\": []}], \"analysis\": \"x\"}");
+        
+        assertThatThrownBy(() -> service.analyzeNews(news)).isInstanceOf(IllegalArgumentException.class);
+        
+        verify(newsAnalysisRepository, never()).save(any());
+    }
+
+    private void stream(String... fragments) throws Exception {
+        doAnswer(invocation -> {
+            GeminiClient.TextConsumer consumer = invocation.getArgument(1);
+            for (String fragment : fragments) {
+                consumer.accept(fragment);
+            }
+            return null;
+        }).when(geminiClient).streamContent(anyString(), any());
+    }
+}
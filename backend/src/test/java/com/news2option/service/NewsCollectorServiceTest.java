@@ -0,0 +1,79 @@
+package com.news2option.service;
+
+import com.news2option.model.FetchState;
+import com.news2option.model.News;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.jsoup.Jsoup;
+import org.jsoup.parser.Parser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NewsCollectorServiceTest {
+
+    private static final PageFetcher.Validators FEED_VALIDATORS = new PageFetcher.Validators("\"v2\"", null, "hash");
+
+    private final PageFetcher pageFetcher = mock(PageFetcher.class);
+    private final UrlDeduplicator urlDeduplicator = mock(UrlDeduplicator.class);
+    private final StoryClusterer storyClusterer = mock(StoryClusterer.class);
+    private final FetchStateStore fetchStateStore = mock(FetchStateStore.class);
+    private final NewsCollectorService collector = new NewsCollectorService(mock(AnalysisQueueService.class), pageFetcher,
+            urlDeduplicator, storyClusterer, mock(ApplicationEventPublisher.class),
+            new PipelineMetrics(new SimpleMeterRegistry(), ObservationRegistry.create()), fetchStateStore);
+
+    @BeforeEach
+    void setUp() {
+        when(fetchStateStore.load(anyString())).thenAnswer(call -> FetchState.builder().url(call.getArgument(0)).build());
+        when(pageFetcher.fetchIfChangedAsync(anyString(), any(), anyBoolean())).thenAnswer(call -> {
+            String feedUrl = call.getArgument(0);
+            String feed = "<rss><channel>"
+                    + "<item><title>First</title><link>" + feedUrl + "#first</link></item>"
+                    + "<item><title>Second</title><link>" + feedUrl + "#second</link></item>"
+                    + "</channel></rss>";
+            return CompletableFuture.completedFuture(
+                    new PageFetcher.ConditionalPage(Jsoup.parse(feed, "", Parser.xmlParser()), FEED_VALIDATORS, true));
+        });
+        when(urlDeduplicator.tryClaim(anyString())).thenReturn(true);
+        when(storyClusterer.saveClustered(any())).thenAnswer(call -> call.getArgument(0));
+    }
+
+    @Test
+    void storesFeedValidatorsOnceEveryArticleIsStored() {
+        when(pageFetcher.fetchAsync(anyString())).thenAnswer(call -> CompletableFuture.completedFuture(Jsoup.parse("<p>Body</p>")));
+
+        List<News> collected = collector.collectNews();
+
+        assertThat(collected).hasSize(10);
+        verify(fetchStateStore, times(5)).update(any(), argThat(FEED_VALIDATORS::equals), isNull());
+    }
+
+    @Test
+    void keepsOldValidatorsWhenAnArticleFails() {
+        when(pageFetcher.fetchAsync(anyString())).thenAnswer(call -> ((String) call.getArgument(0)).endsWith("#second")
+                ? CompletableFuture.failedFuture(new IOException("connection reset"))
+                : CompletableFuture.completedFuture(Jsoup.parse("<p>Body</p>")));
+
+        List<News> collected = collector.collectNews();
+
+        assertThat(collected).hasSize(5);
+        verify(fetchStateStore, times(5)).update(any(), isNull(), isNull());
+        verify(fetchStateStore, never()).update(any(), argThat(FEED_VALIDATORS::equals), any());
+    }
+}
@@ -0,0 +1,99 @@
+package com.news2option.service;
+
+import com.news2option.model.News;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelevanceScorerTest {
+
+    private static final String DICTIONARY = "# symbol,names\n" +
+            "AAPL,Apple,Apple Inc\n" +
+            "MSFT,Microsoft\n" +
+            "T,AT&T\n" +
+            "V,Visa\n";
+
+    private static final String FILLER = " lorem ipsum dolor sit amet".repeat(10);
+
+    @Test
+    void rejectsShortContentBeforeScoring() {
+        RelevanceScorer.Assessment assessment = scorer(2).assess(news("Apple earnings beat", "AAPL up"));
+        
+        assertThat(assessment.relevant()).isFalse();
+        assertThat(assessment.reason()).startsWith("Content too short");
+    }
+
+    @Test
+    void countsEachCompanyOnceWhetherMatchedBySymbolOrName() {
+        RelevanceScorer.Assessment assessment = scorer(2).assess(news("Apple and Microsoft", "AAPL and MSFT, Apple Inc and microsoft." + FILLER));
+        
+        assertThat(assessment.relevant()).isTrue();
+        assertThat(assessment.score()).isEqualTo(6);
+    }
+
+    @Test
+    void addsKeywordWeightsOnceEach() {
+        RelevanceScorer.Assessment assessment = scorer(2).assess(news("Apple earnings", "Earnings and revenue, earnings again." + FILLER));
+        
+        assertThat(assessment.score()).isEqualTo(3 + 2 + 2);
+    }
+
+    @Test
+    void skipsSingleLetterSymbolsButMatchesNames() {
+        RelevanceScorer scorer = scorer(1);
+        
+        assertThat(scorer.assess(news("T and V", "T V T V" + FILLER)).score()).isZero();
+        assertThat(scorer.assess(news("AT&T deal", "Visa too" + FILLER)).score()).isEqualTo(6);
+    }
+
+    @Test
+    void appliesTheThresholdInclusively() {
+        RelevanceScorer scorer = scorer(3);
+        
+        RelevanceScorer.Assessment below = scorer.assess(news("The market", "analysts said" + FILLER));
+        assertThat(below.relevant()).isFalse();
+        assertThat(below.score()).isEqualTo(2);
+        assertThat(below.reason()).isEqualTo("Relevance score 2 below 3");
+        
+        RelevanceScorer.Assessment at = scorer.assess(news("The market", "analysts and investors said" + FILLER));
+        assertThat(at.relevant()).isTrue();
+        assertThat(at.score()).isEqualTo(3);
+    }
+
+    @Test
+    void offTopicKeywordsLowerTheScore() {
+        RelevanceScorer.Assessment assessment = scorer(1).assess(news("Celebrity recipe", "A recipe for the red carpet, say analysts" + FILLER));
+        
+        assertThat(assessment.relevant()).isFalse();
+        assertThat(assessment.score()).isEqualTo(-2 - 3 - 3 + 1);
+    }
+
+    @Test
+    void capsCompanyAndKeywordContributions() {
+        String text = "Apple Microsoft AT&T Visa Amazon earnings revenue profit guidance shares stock merger" + FILLER;
+        
+        assertThat(scorer(1).assess(news("Everything", text)).score()).isEqualTo(4 * 3 + 8);
+    }
+
+    @Test
+    void acceptsEverythingWhenDisabled() {
+        RelevanceScorer scorer = new RelevanceScorer(false, 200, 2, dictionary());
+        
+        assertThat(scorer.assess(news("Recipe", "")).relevant()).isTrue();
+    }
+
+    private static RelevanceScorer scorer(int minScore) {
+        return new RelevanceScorer(true, 100, minScore, dictionary());
+    }
+
+    private static ByteArrayResource dictionary() {
+        return new ByteArrayResource(DICTIONARY.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static News news(String title, String content) {
+        return News.builder().title(title).content(content).build();
+    }
+}
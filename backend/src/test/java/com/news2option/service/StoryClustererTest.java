@@ -0,0 +1,139 @@
+package com.news2option.service;
+
+import com.news2option.dto.StoryFingerprint;
+import com.news2option.model.News;
+import com.news2option.repository.NewsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StoryClustererTest {
+
+    private static final String STORY = "The Federal Reserve held interest rates steady on Wednesday and signalled that " +
+            "it still expects to cut borrowing costs later this year, as officials weighed cooling inflation against " +
+            "a labour market that remains surprisingly resilient. Treasury yields fell after the decision while stocks " +
+            "on Wall Street extended their gains into the afternoon session.";
+
+    private static final String OTHER_STORY = "Apple reported record quarterly revenue driven by strong iPhone demand in " +
+            "emerging markets, although sales in China slipped for a third straight quarter. The company also announced " +
+            "a larger share buyback and raised its dividend, sending the stock higher in extended trading on Thursday.";
+
+    private final NewsRepository newsRepository = mock(NewsRepository.class);
+
+    @Test
+    void textsTooShortToFingerprintHaveNoHash() {
+        assertThat(StoryClusterer.simHash("Stocks rise on rate hopes")).isNull();
+        assertThat(StoryClusterer.simHash("")).isNull();
+    }
+
+    @Test
+    void fingerprintIgnoresCaseAndPunctuation() {
+        assertThat(StoryClusterer.simHash(STORY.toUpperCase().replace(",", " ;")))
+                .isEqualTo(StoryClusterer.simHash(STORY));
+    }
+
+    @Test
+    void lightlyEditedCopiesStayCloseAndOtherStoriesDoNot() {
+        long original = StoryClusterer.simHash(STORY);
+        long edited = StoryClusterer.simHash("Breaking: " + STORY.replace("Wednesday", "Tuesday"));
+        long other = StoryClusterer.simHash(OTHER_STORY);
+        
+        assertThat(Long.bitCount(original ^ edited)).isLessThanOrEqualTo(8);
+        assertThat(Long.bitCount(original ^ other)).isGreaterThan(16);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 7, 8, 15})
+    void fingerprintsWithinTheMaximumDistanceShareABand(int maxDistance) {
+        StoryClusterer clusterer = new StoryClusterer(newsRepository, maxDistance, 72);
+        SplittableRandom random = new SplittableRandom(maxDistance);
+        
+        for (int trial = 0; trial < 2_000; trial++) {
+            long fingerprint = random.nextLong();
+            long near = fingerprint;
+            int flips = random.nextInt(maxDistance + 1);
+            while (Long.bitCount(near ^ fingerprint) < flips) {
+                near ^= 1L << random.nextInt(64);
+            }
+            
+            boolean shared = false;
+            for (int band = 0; band <= maxDistance; band++) {
+                shared |= clusterer.bandKey(band, fingerprint) == clusterer.bandKey(band, near);
+            }
+            assertThat(shared).as("%016x and %016x", fingerprint, near).isTrue();
+        }
+    }
+
+    @Test
+    void bandKeysOfDifferentBandsNeverCollide() {
+        StoryClusterer clusterer = new StoryClusterer(newsRepository, 8, 72);
+        
+        assertThat(clusterer.bandKey(0, 0L)).isNotEqualTo(clusterer.bandKey(1, 0L));
+        assertThat(clusterer.bandKey(1, -1L)).isNotEqualTo(clusterer.bandKey(2, -1L));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 16, 64})
+    void rejectsDistancesTheBandsCannotGuarantee(int maxDistance) {
+        assertThatThrownBy(() -> new StoryClusterer(newsRepository, maxDistance, 72))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("news.cluster.max-distance");
+    }
+
+    @Test
+    void nearDuplicatesJoinTheFirstArticlesCluster() {
+        AtomicLong ids = new AtomicLong();
+        when(newsRepository.save(any(News.class))).thenAnswer(invocation -> {
+            News news = invocation.getArgument(0);
+            if (news.getId() == null) {
+                news.setId(ids.incrementAndGet());
+            }
+            return news;
+        });
+        StoryClusterer clusterer = new StoryClusterer(newsRepository, 8, 72);
+        
+        News first = clusterer.saveClustered(news("Fed holds rates", STORY));
+        News copy = clusterer.saveClustered(news("Fed holds rates steady", "Breaking: " + STORY));
+        News other = clusterer.saveClustered(news("Apple earnings", OTHER_STORY));
+        News tooShort = clusterer.saveClustered(news("Fed", "Rates unchanged"));
+        
+        assertThat(first.getStoryClusterId()).isEqualTo(first.getId());
+        assertThat(copy.getStoryClusterId()).isEqualTo(first.getId());
+        assertThat(other.getStoryClusterId()).isEqualTo(other.getId());
+        assertThat(tooShort.getSimHash()).isNull();
+        assertThat(tooShort.getStoryClusterId()).isEqualTo(tooShort.getId());
+    }
+
+    @Test
+    void copiesOfStoriesStoredBeforeARestartJoinTheirClusterOnceInitialized() {
+        long stored = StoryClusterer.simHash("Fed holds rates " + STORY);
+        when(newsRepository.streamFingerprintsSince(any()))
+                .thenReturn(Stream.of(new StoryFingerprint(stored, 42L, LocalDateTime.now().minusHours(1))));
+        when(newsRepository.save(any(News.class))).thenAnswer(invocation -> {
+            News news = invocation.getArgument(0);
+            news.setId(43L);
+            return news;
+        });
+        StoryClusterer clusterer = new StoryClusterer(newsRepository, 8, 72);
+        
+        clusterer.afterSingletonsInstantiated();
+        News copy = clusterer.saveClustered(news("Fed holds rates steady", "Breaking: " + STORY));
+        
+        assertThat(copy.getStoryClusterId()).isEqualTo(42L);
+    }
+
+    private static News news(String title, String content) {
+        return News.builder().title(title).content(content).collectedAt(LocalDateTime.now()).build();
+    }
+}
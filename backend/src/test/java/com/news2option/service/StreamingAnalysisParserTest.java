@@ -0,0 +1,115 @@
+package com.news2option.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingAnalysisParserTest {
+
+    private static final String DOCUMENT = "{\n" +
+            "  \"analysis\": \"Rates fall \\\"sharply\\\"; café owners cheer\",\n" +
+            "  \"industries\": [\n" +
+            "    {\"name\": \"Banking\", \"impactType\": \"NEGATIVE\", \"impactScore\": 7, \"companies\": [\n" +
+            "      {\"name\": \"JPMorgan\", \"stockSymbol\": \"JPM\", \"impactType\": \"NEGATIVE\", \"impactScore\": 6},\n" +
+            "      {\"name\": \"Wells Fargo\", \"stockSymbol\": \"WFC\", \"impactType\": \"NEGATIVE\", \"impactScore\": 5}\n" +
+            "    ]},\n" +
+            "    {\"name\": \"Real Estate\", \"impactType\": \"POSITIVE\", \"impactScore\": 10, \"companies\": []}\n" +
+            "  ]\n" +
+            "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> analyses = new ArrayList<>();
+    private final List<JsonNode> industries = new ArrayList<>();
+
+    @Test
+    void parsesADocumentFedInOnePiece() throws IOException {
+        StreamingAnalysisParser parser = newParser();
+        
+        parser.feed(DOCUMENT);
+        
+        assertThat(parser.isComplete()).isTrue();
+        assertParsed();
+    }
+
+    @Test
+    void parsesADocumentSplitAtEveryPosition() throws IOException {
+        for (int split = 1; split < DOCUMENT.length(); split++) {
+            analyses.clear();
+            industries.clear();
+            StreamingAnalysisParser parser = newParser();
+            
+            parser.feed(DOCUMENT.substring(0, split));
+            parser.feed(DOCUMENT.substring(split));
+            
+            assertThat(parser.isComplete()).as("split at %d", split).isTrue();
+            assertParsed();
+        }
+    }
+
+    @Test
+    void parsesADocumentFedOneCharacterAtATime() throws IOException {
+        StreamingAnalysisParser parser = newParser();
+        
+        for (int i = 0; i < DOCUMENT.length(); i++) {
+            parser.feed(DOCUMENT.substring(i, i + 1));
+        }
+        
+        assertThat(parser.isComplete()).isTrue();
+        assertParsed();
+    }
+
+    @Test
+    void emitsEachIndustryAsSoonAsItsObjectCloses() throws IOException {
+        StreamingAnalysisParser parser = newParser();
+        int firstIndustryEnd = DOCUMENT.indexOf("]},") + 2;
+        
+        parser.feed(DOCUMENT.substring(0, firstIndustryEnd - 1));
+        assertThat(industries).isEmpty();
+        
+        parser.feed(DOCUMENT.substring(firstIndustryEnd - 1, firstIndustryEnd));
+        assertThat(industries).extracting(industry -> industry.path("name").asText()).containsExactly("Banking");
+        assertThat(parser.isComplete()).isFalse();
+    }
+
+    @Test
+    void skipsACodeFenceBeforeTheDocument() throws IOException {
+        StreamingAnalysisParser parser = newParser();
+        
+        parser.feed("```js");
+        parser.feed("on\n" + DOCUMENT.substring(0, 40));
+        parser.feed(DOCUMENT.substring(40) + "\n```");
+        
+        assertThat(parser.isComplete()).isTrue();
+        assertParsed();
+    }
+
+    @Test
+    void truncatedDocumentIsNotComplete() throws IOException {
+        StreamingAnalysisParser parser = newParser();
+        
+        parser.feed(DOCUMENT.substring(0, DOCUMENT.length() - 10));
+        
+        assertThat(parser.isComplete()).isFalse();
+        assertThat(industries).hasSize(1);
+    }
+
+    private StreamingAnalysisParser newParser() throws IOException {
+        return new StreamingAnalysisParser(objectMapper, analyses::add, industries::add);
+    }
+
+    private void assertParsed() {
+        assertThat(analyses).containsExactly("Rates fall \"sharply\"; café owners cheer");
+        assertThat(industries).hasSize(2);
+        assertThat(industries.get(0).path("name").asText()).isEqualTo("Banking");
+        assertThat(industries.get(0).path("companies")).hasSize(2);
+        assertThat(industries.get(0).path("companies").get(1).path("stockSymbol").asText()).isEqualTo("WFC");
+        assertThat(industries.get(1).path("impactScore").asInt()).isEqualTo(10);
+        assertThat(industries.get(1).path("companies")).isEmpty();
+    }
+}
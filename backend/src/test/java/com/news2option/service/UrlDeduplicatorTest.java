@@ -0,0 +1,93 @@
+package com.news2option.service;
+
+import com.news2option.repository.NewsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UrlDeduplicatorTest {
+
+    private final NewsRepository newsRepository = mock(NewsRepository.class);
+
+    @Test
+    void canonicalizeDropsTrackingParametersAndSortsQuery() {
+        assertThat(UrlDeduplicator.canonicalize("https://example.com/a?utm_source=x&b=2&fbclid=y&a=1&GCLID=z"))
+                .isEqualTo("https://example.com/a?a=1&b=2");
+        assertThat(UrlDeduplicator.canonicalize("https://example.com/a?utm_medium=email"))
+                .isEqualTo("https://example.com/a");
+    }
+
+    @Test
+    void canonicalizeDropsDefaultPortsFragmentsAndTrailingSlash() {
+        assertThat(UrlDeduplicator.canonicalize("HTTPS://Example.COM:443/news/story/#comments"))
+                .isEqualTo("https://example.com/news/story");
+        assertThat(UrlDeduplicator.canonicalize("http://example.com:80"))
+                .isEqualTo("http://example.com/");
+        assertThat(UrlDeduplicator.canonicalize("http://example.com:8080/a"))
+                .isEqualTo("http://example.com:8080/a");
+        assertThat(UrlDeduplicator.canonicalize("https://example.com:80/a"))
+                .isEqualTo("https://example.com:80/a");
+    }
+
+    @Test
+    void canonicalizeKeepsUnparseableUrls() {
+        assertThat(UrlDeduplicator.canonicalize(" not a url ")).isEqualTo("not a url");
+        assertThat(UrlDeduplicator.canonicalize("/relative/path")).isEqualTo("/relative/path");
+    }
+
+    @Test
+    void equivalentUrlsHashAlike() {
+        assertThat(UrlDeduplicator.hash("https://www.cnbc.com/2024/01/02/story.html?utm_source=twitter#top"))
+                .isEqualTo(UrlDeduplicator.hash("https://WWW.CNBC.COM/2024/01/02/story.html"))
+                .hasSize(64);
+    }
+
+    @Test
+    void warmUpRemembersEveryStoredHash() {
+        List<String> stored = List.of(UrlDeduplicator.hash("https://a.com/1"), UrlDeduplicator.hash("https://a.com/2"));
+        when(newsRepository.findByUrlHashIsNull()).thenReturn(List.of());
+        when(newsRepository.streamAllUrlHashes()).thenReturn(stored.stream());
+        UrlDeduplicator deduplicator = new UrlDeduplicator(newsRepository, 1000, 100);
+        
+        deduplicator.warmUp();
+        
+        assertThat(stored).noneMatch(deduplicator::tryClaim);
+        verify(newsRepository, never()).existsByUrlHash(stored.get(0));
+    }
+
+    @Test
+    void claimIsExclusiveUntilReleased() {
+        String urlHash = UrlDeduplicator.hash("https://a.com/1");
+        UrlDeduplicator deduplicator = new UrlDeduplicator(newsRepository, 1000, 100);
+        
+        assertThat(deduplicator.tryClaim(urlHash)).isTrue();
+        assertThat(deduplicator.tryClaim(urlHash)).isFalse();
+        deduplicator.release(urlHash);
+        assertThat(deduplicator.tryClaim(urlHash)).isTrue();
+        deduplicator.markStored(urlHash);
+        assertThat(deduplicator.tryClaim(urlHash)).isFalse();
+    }
+
+    @Test
+    void evictedRecentHashesFallBackToTheDatabase() {
+        String first = UrlDeduplicator.hash("https://a.com/1");
+        String second = UrlDeduplicator.hash("https://a.com/2");
+        String third = UrlDeduplicator.hash("https://a.com/3");
+        when(newsRepository.existsByUrlHash(first)).thenReturn(true);
+        UrlDeduplicator deduplicator = new UrlDeduplicator(newsRepository, 1000, 2);
+        Stream.of(first, second, third).forEach(deduplicator::markStored);
+        
+        assertThat(deduplicator.tryClaim(third)).isFalse();
+        verify(newsRepository, never()).existsByUrlHash(third);
+        
+        assertThat(deduplicator.tryClaim(first)).isFalse();
+        verify(newsRepository).existsByUrlHash(first);
+    }
+}
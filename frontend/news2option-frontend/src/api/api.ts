@@ -1,4 +1,5 @@
 import axios from 'axios';
+import { AnalysisSummary, News, RecommendationSummary } from '../types';
 
 const API_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
 
@@ -9,8 +10,8 @@ const api = axios.create({
   },
 });
 
-export const fetchAllNews = async () => {
-  const response = await api.get('/news');
+export const fetchAllNews = async (cursor?: string, limit = 20) => {
+  const response = await api.get('/news', { params: { cursor, limit } });
   return response.data;
 };
 
@@ -24,8 +25,8 @@ export const fetchNewsById = async (id: number) => {
   return response.data;
 };
 
-export const searchNews = async (query: string) => {
-  const response = await api.get(`/news/search?query=${query}`);
+export const searchNews = async (query: string, page = 0, size = 20) => {
+  const response = await api.get('/news/search', { params: { query, page, size } });
   return response.data;
 };
 
@@ -34,8 +35,8 @@ export const collectNews = async () => {
   return response.data;
 };
 
-export const fetchAllAnalyses = async () => {
-  const response = await api.get('/analysis');
+export const fetchAllAnalyses = async (cursor?: string, limit = 20) => {
+  const response = await api.get('/analysis', { params: { cursor, limit } });
   return response.data;
 };
 
@@ -49,8 +50,8 @@ export const fetchAnalysisById = async (id: number) => {
   return response.data;
 };
 
-export const fetchAllRecommendations = async () => {
-  const response = await api.get('/recommendations');
+export const fetchAllRecommendations = async (cursor?: string, limit = 20) => {
+  const response = await api.get('/recommendations', { params: { cursor, limit } });
   return response.data;
 };
 
@@ -64,9 +65,78 @@ export const fetchRecommendationByDate = async (date: string) => {
   return response.data;
 };
 
+export const fetchRecommendationVersions = async (date: string) => {
+  const response = await api.get(`/recommendations/date/${date}/versions`);
+  return response.data;
+};
+
 export const generateRecommendations = async () => {
   const response = await api.post('/recommendations/generate');
   return response.data;
 };
 
+export const fetchTopIndustries = async (grain = 'DAILY', limit = 20) => {
+  const response = await api.get('/impacts/industries', { params: { grain, limit } });
+  return response.data;
+};
+
+export const fetchTopTickers = async (grain = 'DAILY', limit = 20) => {
+  const response = await api.get('/impacts/tickers', { params: { grain, limit } });
+  return response.data;
+};
+
+export const fetchIndustryImpactBuckets = async (name: string, grain = 'DAILY') => {
+  const response = await api.get(`/impacts/industries/${encodeURIComponent(name)}`, { params: { grain } });
+  return response.data;
+};
+
+export const fetchTickerImpactBuckets = async (symbol: string, grain = 'DAILY') => {
+  const response = await api.get(`/impacts/tickers/${encodeURIComponent(symbol)}`, { params: { grain } });
+  return response.data;
+};
+
+export const fetchTickerSentiment = async (symbol: string) => {
+  const response = await api.get(`/sentiment/${encodeURIComponent(symbol)}`);
+  return response.data;
+};
+
+export const fetchTickerMovingAverage = async (symbol: string, stepMinutes = 60, windowMinutes = 1440) => {
+  const response = await api.get(`/sentiment/${encodeURIComponent(symbol)}/moving-average`, {
+    params: { stepMinutes, windowMinutes },
+  });
+  return response.data;
+};
+
+export const fetchStoryClusters = async (cursor?: string, limit = 20) => {
+  const response = await api.get('/clusters', { params: { cursor, limit } });
+  return response.data;
+};
+
+export const fetchStoryClusterMembers = async (id: number) => {
+  const response = await api.get(`/clusters/${id}`);
+  return response.data;
+};
+
+export interface EventFeedHandlers {
+  onNews?: (news: News) => void;
+  onAnalysis?: (analysis: AnalysisSummary) => void;
+  onRecommendation?: (recommendation: RecommendationSummary) => void;
+  // Called when events were missed and the view should be reloaded
+  onReset?: () => void;
+}
+
+export const subscribeToEvents = (handlers: EventFeedHandlers) => {
+  const source = new EventSource(`${API_URL}/events`);
+  const listen = <T>(type: string, handler?: (data: T) => void) => {
+    if (handler) {
+      source.addEventListener(type, (event) => handler(JSON.parse((event as MessageEvent).data)));
+    }
+  };
+  listen('news', handlers.onNews);
+  listen('analysis', handlers.onAnalysis);
+  listen('recommendation', handlers.onRecommendation);
+  source.addEventListener('reset', () => handlers.onReset?.());
+  return () => source.close();
+};
+
 export default api;
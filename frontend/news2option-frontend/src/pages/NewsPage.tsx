@@ -1,6 +1,6 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { fetchRecentNews, collectNews } from '../api/api';
+import { fetchRecentNews, collectNews, subscribeToEvents } from '../api/api';
 import { News } from '../types';
 import NewsCard from '../components/NewsCard';
 import { Button } from '../components/ui/button';
@@ -87,10 +87,25 @@ const NewsPage: React.FC = () => {
   const [loading, setLoading] = useState<boolean>(true);
   const [collecting, setCollecting] = useState<boolean>(false);
   const [usingFallback, setUsingFallback] = useState<boolean>(false);
+  const usingFallbackRef = useRef<boolean>(false);
   const navigate = useNavigate();
 
+  useEffect(() => {
+    usingFallbackRef.current = usingFallback;
+  }, [usingFallback]);
+
   useEffect(() => {
     loadNews();
+    return subscribeToEvents({
+      onNews: (item) => {
+        if (usingFallbackRef.current) {
+          loadNews();
+          return;
+        }
+        setNews((current) => [item, ...current.filter((existing) => existing.id !== item.id)].slice(0, 20));
+      },
+      onReset: () => loadNews(),
+    });
   }, []);
 
   const loadNews = async () => {
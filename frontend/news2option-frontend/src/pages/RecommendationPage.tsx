@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { fetchLatestRecommendation, generateRecommendations } from '../api/api';
+import { fetchLatestRecommendation, generateRecommendations, subscribeToEvents } from '../api/api';
 import { DailyInvestmentRecommendation } from '../types';
 import RecommendationCard from '../components/RecommendationCard';
 import { Button } from '../components/ui/button';
@@ -13,8 +13,21 @@ const RecommendationPage: React.FC = () => {
 
   useEffect(() => {
     loadRecommendation();
+    return subscribeToEvents({
+      onRecommendation: () => refreshRecommendation(),
+      onReset: () => refreshRecommendation(),
+    });
   }, []);
 
+  const refreshRecommendation = async () => {
+    try {
+      setRecommendation(await fetchLatestRecommendation());
+      setError(null);
+    } catch (error) {
+      console.error('Error refreshing recommendation:', error);
+    }
+  };
+
   const loadRecommendation = async () => {
     try {
       setLoading(true);
@@ -6,6 +6,7 @@ export interface News {
   url: string;
   publishedAt: string;
   collectedAt: string;
+  storyClusterId: number | null;
 }
 
 export interface CompanyImpact {
@@ -45,7 +46,96 @@ export interface RecommendedInvestment {
 export interface DailyInvestmentRecommendation {
   id: number;
   date: string;
+  version: number;
+  generatedAt: string;
+  analysesThrough: string;
   summary: string;
   overallSentiment: 'BULLISH' | 'BEARISH' | 'NEUTRAL';
   recommendedInvestments: RecommendedInvestment[];
 }
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
+export interface NewsSummary {
+  id: number;
+  title: string;
+  source: string;
+  url: string;
+  publishedAt: string;
+}
+
+export interface AnalysisSummary {
+  id: number;
+  newsId: number;
+  newsTitle: string;
+  source: string;
+  analyzedAt: string;
+}
+
+export interface RecommendationSummary {
+  id: number;
+  date: string;
+  version: number;
+  generatedAt: string;
+  overallSentiment: 'BULLISH' | 'BEARISH' | 'NEUTRAL';
+}
+
+export interface SearchHit {
+  id: number;
+  title: string;
+  source: string;
+  url: string;
+  publishedAt: string;
+  score: number;
+  titleHighlight: string | null;
+  contentHighlight: string | null;
+  analysisHighlight: string | null;
+}
+
+export interface SearchPage {
+  totalHits: number;
+  page: number;
+  size: number;
+  hits: SearchHit[];
+}
+
+export interface ImpactTotals {
+  key: string;
+  bucketStart: string | null;
+  positiveCount: number;
+  negativeCount: number;
+  neutralCount: number;
+  count: number;
+  scoreSum: number;
+  averageScore: number;
+}
+
+export interface SentimentRange {
+  ticker: string;
+  timestamps: number[];
+  sentiment: number[];
+  positiveCount: number;
+  negativeCount: number;
+  neutralCount: number;
+  averageSentiment: number;
+}
+
+export interface MovingAverage {
+  ticker: string;
+  start: number;
+  stepMillis: number;
+  windowMillis: number;
+  averages: number[];
+  counts: number[];
+}
+
+export interface StoryClusterSummary {
+  id: number;
+  title: string;
+  source: string;
+  publishedAt: string;
+  size: number;
+}